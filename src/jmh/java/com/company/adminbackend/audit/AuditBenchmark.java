@@ -0,0 +1,141 @@
+package com.company.adminbackend.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of the audit path: building an event, serializing it, and AuditService.log
+ * both synchronously and through AsyncAuditDispatcher.
+ *
+ * Design decisions:
+ * - The sink serializes exactly as LogAuditSink does but hands the bytes to a Blackhole
+ *   instead of a logger, so the numbers measure this code and not the logging backend.
+ * - logAsync measures what a request thread pays to publish; the buffer uses the BLOCK
+ *   policy, so once it fills the benchmark is paced by the writer thread.
+ * - objectMapper is the baseline: the ObjectMapper.writeValueAsString path the serializer
+ *   replaced, configured as it was (JavaTimeModule, ISO-8601 dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditBenchmark {
+
+    private static final List<String> ROLES = List.of("ADMIN", "SUPPORT");
+
+    private AuditEventSerializer serializer;
+    private ObjectMapper objectMapper;
+    private AuditEvent event;
+    private AuditService syncService;
+    private AuditService asyncService;
+    private AsyncAuditDispatcher dispatcher;
+
+    @Setup
+    public void setUp() {
+        serializer = new AuditEventSerializer();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        event = newEvent();
+        AuditSink sink = new BlackholeSink(serializer);
+
+        StaticListableBeanFactory noDispatcher = new StaticListableBeanFactory();
+        syncService = new AuditService(List.of(sink), noDispatcher.getBeanProvider(AsyncAuditDispatcher.class));
+
+        dispatcher = new AsyncAuditDispatcher(List.of(sink), 8192, 256, AuditOverflowPolicy.BLOCK,
+                Duration.ofSeconds(5), Duration.ofMillis(2), Duration.ofSeconds(10));
+        StaticListableBeanFactory withDispatcher = new StaticListableBeanFactory();
+        withDispatcher.addBean("asyncAuditDispatcher", dispatcher);
+        asyncService = new AuditService(List.of(sink), withDispatcher.getBeanProvider(AsyncAuditDispatcher.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    public AuditEvent builder() {
+        return newEvent();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return serializer.toJsonBytes(event);
+    }
+
+    @Benchmark
+    public String objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public String serializeString() throws JsonProcessingException {
+        return serializer.toJson(event);
+    }
+
+    @Benchmark
+    public void logSync() {
+        syncService.log(newEvent());
+    }
+
+    @Benchmark
+    public void logAsync() {
+        asyncService.log(newEvent());
+    }
+
+    private static AuditEvent newEvent() {
+        return AuditEvent.builder()
+                .action("FORCE_CLOSE_SCAN")
+                .username("jane.doe@example.com")
+                .userId("6f1c2a9e-3d4b-4f7a-9c1e-2b8d5a7f0e13")
+                .roles(ROLES)
+                .resourceId("scan-000123")
+                .status("SUCCESS")
+                .correlationId("01M53P4KT86WTX091VDEVCKFC5")
+                .build();
+    }
+
+    private static final class BlackholeSink implements AuditSink {
+
+        private final AuditEventSerializer serializer;
+        private volatile Object sinkhole;
+
+        BlackholeSink(AuditEventSerializer serializer) {
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void write(List<AuditEvent> events) {
+            for (AuditEvent event : events) {
+                try {
+                    sinkhole = serializer.toJson(event);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.company.adminbackend.audit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of AuditFilter's correlation-id path per request: read or generate the id, set the
+ * request attribute, response header and MDC entry, and clear MDC afterwards.
+ *
+ * Design decisions:
+ * - "generated" covers requests without X-Correlation-Id (id generation included);
+ *   "propagated" covers callers that send one.
+ * - A fresh mock request/response per invocation is part of the measured cost; the
+ *   "baseline" benchmark measures just that, so it can be subtracted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"generated", "propagated"})
+    public String correlationId;
+
+    private AuditFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new AuditFilter();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filter() throws ServletException, IOException {
+        MockHttpServletRequest request = newRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse baseline() {
+        newRequest();
+        return new MockHttpServletResponse();
+    }
+
+    private MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/scan/scan-000123");
+        if ("propagated".equals(correlationId)) {
+            request.addHeader("X-Correlation-Id", "01M53P4KT86WTX091VDEVCKFC5");
+        }
+        return request;
+    }
+}
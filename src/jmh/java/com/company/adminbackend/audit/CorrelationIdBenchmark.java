@@ -0,0 +1,42 @@
+package com.company.adminbackend.audit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlation-id generation: CorrelationIds against the UUID.randomUUID() path it replaced,
+ * with as many threads as there are cores so the shared SecureRandom is contended the way
+ * request threads contend for it.
+ *
+ * Design decisions:
+ * - Both benchmarks return the String the filter puts in MDC and the response header, so
+ *   the toString() of the UUID is part of its cost.
+ * - Run with -t 1 for the uncontended numbers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class CorrelationIdBenchmark {
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String correlationIds() {
+        return CorrelationIds.next();
+    }
+}
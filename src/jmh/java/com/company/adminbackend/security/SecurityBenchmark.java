@@ -0,0 +1,164 @@
+package com.company.adminbackend.security;
+
+import com.company.adminbackend.config.AudienceValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request cost of turning a validated JWT into authorities and a UserContext, of the
+ * audience check, and of a JWT cache hit.
+ *
+ * Design decisions:
+ * - UserContextService.getRoles was folded into resolve(Jwt, RoleSet) when the UserContext
+ *   became a per-request value; resolve is benchmarked in its place, together with the
+ *   full conversion UserContextAuthenticationConverter performs once per request.
+ * - jwtCacheHit decodes a token that is already cached, so the delegate is never called;
+ *   it measures the SHA-256 key and the map lookup that replace signature verification.
+ * - The legacy* benchmarks are the baseline: the per-request path before UserContext and
+ *   RoleSet, reproduced here because the old code is gone. legacyAuthenticationConverter
+ *   is the old JwtRoleConverter (a new SimpleGrantedAuthority per role) plus the default
+ *   JwtAuthenticationToken; legacyUserContext is the old per-call UserContextService
+ *   (getUsername, getUserId, and getRoles streaming the authorities and stripping the
+ *   "ROLE_" prefix). Compare them with authenticationConverter and resolveUserContext.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityBenchmark {
+
+    private static final String TOKEN = "eyJhbGciOiJSUzI1NiIsImtpZCI6ImJlbmNoIn0."
+            + "eyJzdWIiOiI2ZjFjMmE5ZSIsInJvbGVzIjpbIkFETUlOIiwiU1VQUE9SVCJdfQ."
+            + "c2lnbmF0dXJlLXBsYWNlaG9sZGVyLWZvci10aGUtYmVuY2htYXJrLW9ubHk";
+
+    private Jwt jwt;
+    private JwtRoleConverter roleConverter;
+    private UserContextService userContextService;
+    private Converter<Jwt, AbstractAuthenticationToken> authenticationConverter;
+    private AudienceValidator audienceValidator;
+    private CachingJwtDecoder jwtCache;
+    private JwtAuthenticationToken legacyToken;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue(TOKEN)
+                .header("alg", "RS256")
+                .subject("6f1c2a9e-3d4b-4f7a-9c1e-2b8d5a7f0e13")
+                .claim("preferred_username", "jane.doe@example.com")
+                .claim("roles", List.of("ADMIN", "SUPPORT"))
+                .audience(List.of("adminapp-backend"))
+                .issuer("https://login.microsoftonline.com/tenant/v2.0")
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .build();
+        roleConverter = new JwtRoleConverter();
+        userContextService = new UserContextService();
+        authenticationConverter = new UserContextAuthenticationConverter(userContextService);
+        audienceValidator = new AudienceValidator("adminapp-backend");
+        jwtCache = new CachingJwtDecoder(token -> jwt, 10_000, Duration.ofSeconds(5));
+        jwtCache.decode(TOKEN);
+        legacyToken = new JwtAuthenticationToken(jwt, LegacyPath.authorities(jwt), jwt.getSubject());
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> roleConverter() {
+        return roleConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public UserContext resolveUserContext() {
+        return userContextService.resolve(jwt, JwtRoleConverter.roleSet(jwt));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken authenticationConverter() {
+        return authenticationConverter.convert(jwt);
+    }
+
+    @Benchmark
+    public OAuth2TokenValidatorResult audienceValidator() {
+        return audienceValidator.validate(jwt);
+    }
+
+    @Benchmark
+    public Jwt jwtCacheHit() {
+        return jwtCache.decode(TOKEN);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken legacyAuthenticationConverter() {
+        return new JwtAuthenticationToken(jwt, LegacyPath.authorities(jwt), jwt.getSubject());
+    }
+
+    @Benchmark
+    public void legacyUserContext(Blackhole blackhole) {
+        blackhole.consume(LegacyPath.username(legacyToken));
+        blackhole.consume(LegacyPath.userId(legacyToken));
+        blackhole.consume(LegacyPath.roles(legacyToken));
+    }
+
+    /**
+     * The pre-UserContext code: JwtRoleConverter.convert and UserContextService's getters.
+     */
+    private static final class LegacyPath {
+
+        private static final String ROLE_PREFIX = "ROLE_";
+
+        static Collection<GrantedAuthority> authorities(Jwt jwt) {
+            List<String> roles = jwt.getClaimAsStringList("roles");
+            if (roles == null || roles.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return roles.stream()
+                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+
+        static String username(JwtAuthenticationToken token) {
+            Object preferred = token.getTokenAttributes().get("preferred_username");
+            return preferred != null ? preferred.toString() : token.getName();
+        }
+
+        static String userId(JwtAuthenticationToken token) {
+            return token.getToken().getSubject();
+        }
+
+        static List<String> roles(JwtAuthenticationToken token) {
+            if (token.getAuthorities() == null) {
+                return Collections.emptyList();
+            }
+            return token.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(a -> a.startsWith(ROLE_PREFIX))
+                    .map(a -> a.substring(ROLE_PREFIX.length()))
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    }
+}
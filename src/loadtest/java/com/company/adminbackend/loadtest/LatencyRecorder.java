@@ -0,0 +1,68 @@
+package com.company.adminbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses of one operation, recorded by one worker thread.
+ *
+ * Every sample is kept (a minute of load is a few hundred thousand longs), so percentiles
+ * are exact; workers record without sharing anything and are merged once at the end.
+ * Status 0 stands for a transport error.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[4096];
+    private int count;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    void addAll(LatencyRecorder other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Integer::sum));
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    Map<Integer, Integer> statuses() {
+        return statuses;
+    }
+
+    /**
+     * Sorts the samples; call once recording is finished.
+     */
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,271 @@
+package com.company.adminbackend.loadtest;
+
+import com.company.adminbackend.AdminAppBackendApplication;
+import com.company.adminbackend.config.VirtualThreadsListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * End-to-end load test: runs the real application against StubIssuer and
+ * StubControllerApp, drives getScan and forceCloseScan through the HTTP API, and checks
+ * the result against thresholds.
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.concurrency=32"
+ *
+ * Design decisions:
+ * - The application is started in-process from AdminAppBackendApplication with the stubs'
+ *   URLs as command-line properties, so the full filter chain, JWT validation, service
+ *   token refresh, limiter, breaker, cache and audit path are all exercised. Arguments not
+ *   starting with --loadtest. are passed to the application (e.g.
+ *   --controller-app.hedge.enabled=true), overriding the defaults set here.
+ * - Closed loop: a fixed number of workers each send the next request as soon as the last
+ *   one answers, so throughput is what the service sustains at that concurrency. Requests
+ *   during the warm-up are sent but not recorded.
+ * - Scan ids are drawn uniformly from loadtest.scan-ids ids, and requests are spread over
+ *   loadtest.users users, each with their own token.
+ * - Every non-2xx answer counts as an error, including 503s from the limiter or breaker.
+ * - The result is printed and written as JSON to loadtest.report; the process exits with
+ *   status 1 when a threshold is violated, so CI can track regressions.
+ */
+public final class LoadTestDriver {
+
+    private static final String GET_SCAN = "getScan";
+    private static final String FORCE_CLOSE = "forceCloseScan";
+
+    private LoadTestDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> loadTestArgs = new LinkedHashMap<>();
+        Map<String, String> appArgs = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            String key = arg.substring(2, eq);
+            if (key.startsWith(LoadTestSettings.PREFIX)) {
+                loadTestArgs.put(key.substring(LoadTestSettings.PREFIX.length()), arg.substring(eq + 1));
+            } else {
+                appArgs.put(key, arg.substring(eq + 1));
+            }
+        }
+        LoadTestSettings settings = LoadTestSettings.of(loadTestArgs);
+
+        List<String> violations;
+        try (StubIssuer issuer = StubIssuer.start(Duration.ofHours(1));
+             StubControllerApp controllerApp = StubControllerApp.start(settings.readProfile, settings.writeProfile);
+             ConfigurableApplicationContext application = startApplication(issuer, controllerApp, appArgs)) {
+
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            List<String> tokens = new ArrayList<>();
+            for (int i = 0; i < settings.users; i++) {
+                String username = "loadtest-" + i + "@example.com";
+                tokens.add(issuer.mintUserToken(username, UUID.nameUUIDFromBytes(username.getBytes()).toString(),
+                        List.of("ADMIN")));
+            }
+
+            Map<String, LatencyRecorder> results = run(settings, "http://127.0.0.1:" + port, tokens);
+            violations = report(settings, results, controllerApp);
+        }
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(StubIssuer issuer, StubControllerApp controllerApp,
+                                                                   Map<String, String> overrides) throws IOException {
+        Path dataDir = Files.createTempDirectory("admin-loadtest");
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.security.oauth2.resourceserver.jwt.issuer-uri", issuer.getIssuer());
+        properties.put("spring.security.oauth2.client.provider.entra-id.token-uri", issuer.getTokenUri());
+        properties.put("spring.security.oauth2.client.registration.controller-app.client-id", "admin-app-backend");
+        properties.put("spring.security.oauth2.client.registration.controller-app.client-secret", "loadtest");
+        properties.put("spring.security.oauth2.client.registration.controller-app.scope",
+                StubIssuer.CONTROLLER_APP_AUDIENCE + "/.default");
+        properties.put("controller-app.base-url", controllerApp.getBaseUrl());
+        properties.put("security.jwks.snapshot-file", dataDir.resolve("jwks-snapshot.json").toString());
+        properties.put("audit.wal.directory", dataDir.resolve("audit-wal").toString());
+        properties.put("audit.store.directory", dataDir.resolve("audit-store").toString());
+        // Opt-in since it trades freshness for load; the test is meant to cover it.
+        properties.put("admin.scan-cache.enabled", "true");
+        // Per-call DEBUG lines would measure the console, not the service.
+        properties.put("logging.level.com.company.adminbackend", "INFO");
+        properties.putAll(overrides);
+
+        SpringApplication application = new SpringApplication(AdminAppBackendApplication.class);
+        application.addListeners(new VirtualThreadsListener());
+        return application.run(properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new));
+    }
+
+    private static Map<String, LatencyRecorder> run(LoadTestSettings settings, String baseUrl, List<String> tokens)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        long recordFrom = start + settings.warmup.toNanos();
+        long end = recordFrom + settings.duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+        List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency; i++) {
+            futures.add(workers.submit(() -> work(settings, client, baseUrl, tokens, recordFrom, end)));
+        }
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        merged.put(GET_SCAN, new LatencyRecorder());
+        merged.put(FORCE_CLOSE, new LatencyRecorder());
+        for (Future<Map<String, LatencyRecorder>> future : futures) {
+            future.get().forEach((operation, recorder) -> merged.get(operation).addAll(recorder));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private static Map<String, LatencyRecorder> work(LoadTestSettings settings, HttpClient client, String baseUrl,
+                                                     List<String> tokens, long recordFrom, long end) {
+        Map<String, LatencyRecorder> recorders = Map.of(GET_SCAN, new LatencyRecorder(),
+                FORCE_CLOSE, new LatencyRecorder());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            long sent = System.nanoTime();
+            if (sent >= end) {
+                return recorders;
+            }
+            boolean forceClose = random.nextDouble() < settings.forceCloseRatio;
+            String scanId = "scan-" + random.nextInt(settings.scanIds);
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())))
+                    .timeout(Duration.ofSeconds(70));
+            if (forceClose) {
+                request.uri(URI.create(baseUrl + "/admin/scan/" + scanId + "/force-close"))
+                        .POST(HttpRequest.BodyPublishers.noBody());
+            } else {
+                request.uri(URI.create(baseUrl + "/admin/scan/" + scanId)).GET();
+            }
+            int status;
+            try {
+                status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return recorders;
+            }
+            if (sent >= recordFrom) {
+                recorders.get(forceClose ? FORCE_CLOSE : GET_SCAN).record(System.nanoTime() - sent, status);
+            }
+        }
+    }
+
+    private static List<String> report(LoadTestSettings settings, Map<String, LatencyRecorder> results,
+                                       StubControllerApp controllerApp) throws IOException {
+        double seconds = settings.duration.toNanos() / 1e9;
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        System.out.printf("%n%-15s %9s %10s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, LatencyRecorder> entry : results.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            long[] sorted = recorder.sorted();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", recorder.count());
+            summary.put("throughput", recorder.count() / seconds);
+            summary.put("errors", recorder.errors());
+            summary.put("statuses", recorder.statuses());
+            summary.put("p50Ms", millis(LatencyRecorder.percentile(sorted, 0.50)));
+            summary.put("p90Ms", millis(LatencyRecorder.percentile(sorted, 0.90)));
+            summary.put("p99Ms", millis(LatencyRecorder.percentile(sorted, 0.99)));
+            summary.put("p999Ms", millis(LatencyRecorder.percentile(sorted, 0.999)));
+            summary.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            operations.put(entry.getKey(), summary);
+            System.out.printf("%-15s %9d %10.1f %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), recorder.count(), recorder.count() / seconds, recorder.errors(),
+                    summary.get("p50Ms"), summary.get("p90Ms"), summary.get("p99Ms"),
+                    summary.get("p999Ms"), summary.get("maxMs"));
+            totalRequests += recorder.count();
+            totalErrors += recorder.errors();
+
+            Duration maxP99 = GET_SCAN.equals(entry.getKey()) ? settings.maxGetScanP99 : settings.maxForceCloseP99;
+            long p99 = LatencyRecorder.percentile(sorted, 0.99);
+            if (sorted.length > 0 && p99 > maxP99.toNanos()) {
+                violations.add(String.format("%s p99 %.1f ms > %d ms", entry.getKey(), millis(p99), maxP99.toMillis()));
+            }
+        }
+
+        double throughput = totalRequests / seconds;
+        double errorRate = totalRequests == 0 ? 0 : (double) totalErrors / totalRequests;
+        if (totalRequests == 0) {
+            violations.add("no requests completed");
+        }
+        if (throughput < settings.minThroughput) {
+            violations.add(String.format("throughput %.1f req/s < %.1f req/s", throughput, settings.minThroughput));
+        }
+        if (errorRate > settings.maxErrorRate) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate, settings.maxErrorRate));
+        }
+        // Batched lookups serve several requests and carry no single correlation id.
+        long perRequestCalls = controllerApp.getRequests() - controllerApp.getLookups();
+        if (controllerApp.getWithCorrelationId() < perRequestCalls) {
+            violations.add(String.format("%d of %d ControllerApp calls had no X-Correlation-Id",
+                    perRequestCalls - controllerApp.getWithCorrelationId(), perRequestCalls));
+        }
+
+        System.out.printf("%ntotal %.1f req/s, error rate %.4f; ControllerApp saw %d calls (%d failed, %d batched)%n",
+                throughput, errorRate, controllerApp.getRequests(), controllerApp.getErrors(),
+                controllerApp.getLookups());
+        violations.forEach(violation -> System.out.println("FAIL: " + violation));
+        System.out.println(violations.isEmpty() ? "PASS" : "FAILED");
+
+        Map<String, Object> controllerAppStats = new LinkedHashMap<>();
+        controllerAppStats.put("requests", controllerApp.getRequests());
+        controllerAppStats.put("errors", controllerApp.getErrors());
+        controllerAppStats.put("lookups", controllerApp.getLookups());
+        controllerAppStats.put("withCorrelationId", controllerApp.getWithCorrelationId());
+        controllerAppStats.put("withDeadline", controllerApp.getWithDeadline());
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("concurrency", settings.concurrency);
+        document.put("durationSeconds", seconds);
+        document.put("throughput", throughput);
+        document.put("errorRate", errorRate);
+        document.put("operations", operations);
+        document.put("controllerApp", controllerAppStats);
+        document.put("violations", violations);
+        Path reportFile = Path.of(settings.report);
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), document);
+        return violations;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
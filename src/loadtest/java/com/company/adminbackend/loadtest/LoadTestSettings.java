@@ -0,0 +1,73 @@
+package com.company.adminbackend.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Load shape, stub behaviour and pass/fail thresholds, read from --loadtest.* arguments.
+ * Unset keys keep the defaults below.
+ */
+final class LoadTestSettings {
+
+    static final String PREFIX = "loadtest.";
+
+    final Duration warmup;
+    final Duration duration;
+    final int concurrency;
+    final double forceCloseRatio;
+    final int scanIds;
+    final int users;
+    final StubControllerApp.LatencyProfile readProfile;
+    final StubControllerApp.LatencyProfile writeProfile;
+    final double minThroughput;
+    final Duration maxGetScanP99;
+    final Duration maxForceCloseP99;
+    final double maxErrorRate;
+    final String report;
+
+    private final Map<String, String> values;
+
+    private LoadTestSettings(Map<String, String> values) {
+        this.values = values;
+        this.warmup = duration("warmup", "10s");
+        this.duration = duration("duration", "60s");
+        this.concurrency = Integer.parseInt(string("concurrency", "16"));
+        this.forceCloseRatio = number("force-close-ratio", "0.1");
+        this.scanIds = Integer.parseInt(string("scan-ids", "100000"));
+        this.users = Integer.parseInt(string("users", "20"));
+        this.readProfile = new StubControllerApp.LatencyProfile(
+                duration("controller.read.median", "20ms"),
+                duration("controller.read.p99", "150ms"),
+                number("controller.read.error-rate", "0.005"));
+        this.writeProfile = new StubControllerApp.LatencyProfile(
+                duration("controller.write.median", "50ms"),
+                duration("controller.write.p99", "400ms"),
+                number("controller.write.error-rate", "0.005"));
+        this.minThroughput = number("threshold.min-throughput", "0");
+        this.maxGetScanP99 = duration("threshold.get-scan.p99", "300ms");
+        this.maxForceCloseP99 = duration("threshold.force-close.p99", "800ms");
+        this.maxErrorRate = number("threshold.max-error-rate", "0.02");
+        this.report = string("report", "target/loadtest-result.json");
+    }
+
+    /**
+     * Keys are given without the "loadtest." prefix.
+     */
+    static LoadTestSettings of(Map<String, String> values) {
+        return new LoadTestSettings(values);
+    }
+
+    private String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    private double number(String key, String defaultValue) {
+        return Double.parseDouble(string(key, defaultValue));
+    }
+
+    private Duration duration(String key, String defaultValue) {
+        return DurationStyle.detectAndParse(string(key, defaultValue));
+    }
+}
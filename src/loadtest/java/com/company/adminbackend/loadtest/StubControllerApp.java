@@ -0,0 +1,162 @@
+package com.company.adminbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for ControllerApp with configurable latency and error rate per operation.
+ *
+ * Design decisions:
+ * - Serves the three endpoints ControllerClient uses: GET /api/scan/{id},
+ *   POST /api/scan/{id}/force-close and POST /api/scans/lookup.
+ * - Latency is log-normal, defined by its median and p99, which is how service latency is
+ *   usually described and gives the long tail hedging and the limiter react to. A failing
+ *   call (503) takes as long as a successful one.
+ * - Responses are sent from a scheduler after the sampled delay instead of sleeping on a
+ *   server thread, so thousands of slow calls can be in flight without thousands of threads
+ *   and the stub does not become the bottleneck.
+ * - It checks that a bearer token is present and counts requests that carry
+ *   X-Correlation-Id and X-Request-Timeout, so the driver can verify propagation.
+ */
+public class StubControllerApp implements AutoCloseable {
+
+    private static final Pattern SCAN_PATH = Pattern.compile("/api/scan/([^/]+)(/force-close)?");
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * Log-normal latency given by its median and p99, plus the share of calls answered with 503.
+     */
+    public record LatencyProfile(Duration median, Duration p99, double errorRate) {
+
+        long sampleNanos(ThreadLocalRandom random) {
+            double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+            return (long) (median.toNanos() * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    private final HttpServer server;
+    private final ScheduledExecutorService responder;
+    private final LatencyProfile readProfile;
+    private final LatencyProfile writeProfile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder withCorrelationId = new LongAdder();
+    private final LongAdder withDeadline = new LongAdder();
+
+    private StubControllerApp(HttpServer server, LatencyProfile readProfile, LatencyProfile writeProfile) {
+        this.server = server;
+        this.readProfile = readProfile;
+        this.writeProfile = writeProfile;
+        this.responder = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "stub-controller-app-responder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static StubControllerApp start(LatencyProfile readProfile, LatencyProfile writeProfile) throws IOException {
+        HttpServer server = StubHttp.loopbackServer("stub-controller-app", 4);
+        StubControllerApp app = new StubControllerApp(server, readProfile, writeProfile);
+        server.createContext("/api/", app::handle);
+        server.start();
+        return app;
+    }
+
+    public String getBaseUrl() {
+        return StubHttp.baseUrl(server);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        if (exchange.getRequestHeaders().containsKey("X-Correlation-Id")) {
+            withCorrelationId.increment();
+        }
+        if (exchange.getRequestHeaders().containsKey("X-Request-Timeout")) {
+            withDeadline.increment();
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            StubHttp.sendJson(exchange, 401, new byte[0]);
+            return;
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        Matcher scan = SCAN_PATH.matcher(path);
+        if ("POST".equals(method) && "/api/scans/lookup".equals(path)) {
+            lookups.increment();
+            JsonNode scanIds = objectMapper.readTree(StubHttp.readBody(exchange)).path("scanIds");
+            ArrayNode scans = objectMapper.createArrayNode();
+            scanIds.forEach(id -> scans.addPOJO(scan(id.asText(), "RUNNING")));
+            respond(exchange, readProfile, scans);
+        } else if (scan.matches() && scan.group(2) == null && "GET".equals(method)) {
+            respond(exchange, readProfile, scan(scan.group(1), "RUNNING"));
+        } else if (scan.matches() && scan.group(2) != null && "POST".equals(method)) {
+            respond(exchange, writeProfile, scan(scan.group(1), "CLOSED"));
+        } else {
+            StubHttp.sendJson(exchange, 404, new byte[0]);
+        }
+    }
+
+    private static Map<String, String> scan(String scanId, String status) {
+        return Map.of("scanId", scanId, "status", status, "message", "stub");
+    }
+
+    private void respond(HttpExchange exchange, LatencyProfile profile, Object body) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayNanos = profile.sampleNanos(random);
+        boolean fail = random.nextDouble() < profile.errorRate();
+        byte[] json = fail
+                ? objectMapper.writeValueAsBytes(Map.of("error", "stub failure"))
+                : objectMapper.writeValueAsBytes(body);
+        responder.schedule(() -> {
+            if (fail) {
+                errors.increment();
+            }
+            StubHttp.sendJson(exchange, fail ? 503 : 200, json);
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getWithCorrelationId() {
+        return withCorrelationId.sum();
+    }
+
+    public long getWithDeadline() {
+        return withDeadline.sum();
+    }
+
+    @Override
+    public void close() {
+        responder.shutdownNow();
+        StubHttp.stop(server);
+    }
+}
@@ -0,0 +1,174 @@
+package com.company.adminbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for Entra ID: OIDC discovery, a JWKS with one RSA key, and a token
+ * endpoint.
+ *
+ * Design decisions:
+ * - The issuer URL has the same shape as Entra ID's ({base}/{tenant}/v2.0), so the
+ *   application's discovery, JWKS and issuer validation run unchanged against it.
+ * - client_credentials requests get a service token for ControllerApp; the stub
+ *   ControllerApp does not verify it, only that one is sent.
+ * - AdminApp user tokens (audience adminapp-backend, "roles", preferred_username, sub)
+ *   are minted in-process by the driver with mintUserToken, or over HTTP with the
+ *   non-standard grant urn:loadtest:user-token (username, roles=A,B) for external tools.
+ * - Signing is RS256 with a key generated at startup; nothing is persisted.
+ */
+public class StubIssuer implements AutoCloseable {
+
+    public static final String AUDIENCE = "adminapp-backend";
+    public static final String CONTROLLER_APP_AUDIENCE = "api://controller-app";
+    private static final String USER_TOKEN_GRANT = "urn:loadtest:user-token";
+
+    private final HttpServer server;
+    private final RSAKey signingKey;
+    private final String issuer;
+    private final Duration tokenLifetime;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder serviceTokensIssued = new LongAdder();
+
+    private StubIssuer(HttpServer server, RSAKey signingKey, Duration tokenLifetime) {
+        this.server = server;
+        this.signingKey = signingKey;
+        this.issuer = StubHttp.baseUrl(server) + "/loadtest-tenant/v2.0";
+        this.tokenLifetime = tokenLifetime;
+    }
+
+    public static StubIssuer start(Duration tokenLifetime) throws IOException, JOSEException {
+        RSAKey signingKey = new RSAKeyGenerator(2048)
+                .keyID(UUID.randomUUID().toString())
+                .algorithm(JWSAlgorithm.RS256)
+                .generate();
+        HttpServer server = StubHttp.loopbackServer("stub-issuer", 2);
+        StubIssuer issuer = new StubIssuer(server, signingKey, tokenLifetime);
+        server.createContext("/", issuer::handle);
+        server.start();
+        return issuer;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getTokenUri() {
+        return issuer + "/oauth2/token";
+    }
+
+    public long getServiceTokensIssued() {
+        return serviceTokensIssued.sum();
+    }
+
+    /**
+     * Signed AdminApp access token for the given user, valid for the configured lifetime.
+     */
+    public String mintUserToken(String username, String userId, List<String> roles) {
+        Instant now = Instant.now();
+        return sign(new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .audience(AUDIENCE)
+                .subject(userId)
+                .claim("preferred_username", username)
+                .claim("roles", roles)
+                .issueTime(Date.from(now))
+                .notBeforeTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(tokenLifetime)))
+                .jwtID(UUID.randomUUID().toString())
+                .build());
+    }
+
+    private String mintServiceToken(String clientId) {
+        Instant now = Instant.now();
+        return sign(new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .audience(CONTROLLER_APP_AUDIENCE)
+                .subject(clientId)
+                .claim("roles", List.of("Scans.Manage"))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(tokenLifetime)))
+                .build());
+    }
+
+    private String sign(JWTClaimsSet claims) {
+        try {
+            SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(signingKey));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String prefix = issuer.substring(StubHttp.baseUrl(server).length());
+        switch (path.startsWith(prefix) ? path.substring(prefix.length()) : path) {
+            case "/.well-known/openid-configuration" -> sendJson(exchange, 200, Map.of(
+                    "issuer", issuer,
+                    "jwks_uri", issuer + "/discovery/keys",
+                    "token_endpoint", getTokenUri(),
+                    "id_token_signing_alg_values_supported", List.of("RS256")));
+            case "/discovery/keys" -> StubHttp.sendJson(exchange, 200,
+                    new JWKSet(signingKey.toPublicJWK()).toString().getBytes());
+            case "/oauth2/token" -> token(exchange);
+            default -> sendJson(exchange, 404, Map.of("error", "not_found"));
+        }
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendJson(exchange, 405, Map.of("error", "invalid_request"));
+            return;
+        }
+        Map<String, String> form = StubHttp.readForm(exchange);
+        String grantType = form.getOrDefault("grant_type", "");
+        String accessToken;
+        if ("client_credentials".equals(grantType)) {
+            accessToken = mintServiceToken(form.getOrDefault("client_id", "admin-app-backend"));
+            serviceTokensIssued.increment();
+        } else if (USER_TOKEN_GRANT.equals(grantType)) {
+            String username = form.getOrDefault("username", "loadtest@example.com");
+            List<String> roles = Arrays.asList(form.getOrDefault("roles", "ADMIN").split(","));
+            accessToken = mintUserToken(username, UUID.nameUUIDFromBytes(username.getBytes()).toString(), roles);
+        } else {
+            sendJson(exchange, 400, Map.of("error", "unsupported_grant_type"));
+            return;
+        }
+        sendJson(exchange, 200, Map.of(
+                "access_token", accessToken,
+                "token_type", "Bearer",
+                "expires_in", tokenLifetime.toSeconds()));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        StubHttp.sendJson(exchange, status, objectMapper.writeValueAsBytes(body));
+    }
+
+    @Override
+    public void close() {
+        StubHttp.stop(server);
+    }
+}
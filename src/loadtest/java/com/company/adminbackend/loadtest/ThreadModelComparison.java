@@ -0,0 +1,118 @@
+package com.company.adminbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs LoadTestDriver twice with the same high-concurrency load against a slow
+ * StubControllerApp, once on platform threads and once with spring.threads.virtual.enabled,
+ * and prints the two results side by side. Needs a Java 21 runtime:
+ *
+ *   mvn -Pjava21,loadtest test-compile exec:exec \
+ *       -Dloadtest.main=com.company.adminbackend.loadtest.ThreadModelComparison
+ *
+ * Design decisions:
+ * - Each mode runs in its own JVM: Reactor reads the boundedElastic-on-virtual-threads
+ *   switch (see VirtualThreadsListener) once per process, so one JVM cannot host both.
+ * - The defaults below shape the load the way virtual threads are meant to help with:
+ *   2000 concurrent callers, ControllerApp reads around 200ms and writes around 500ms, and
+ *   the scan cache off so every read reaches ControllerApp. The limiter and breaker are off
+ *   and the connection pool is unbounded, because the limiter reacts to the stub's latency
+ *   tail by shedding load long before the thread model matters. Thresholds are relaxed:
+ *   this compares the modes, it does not gate them.
+ * - The driver, both stubs and the application share the machine; give it several cores,
+ *   or boundedElastic (10 threads per core) and the driver dominate the result.
+ * - Any --key=value argument overrides the defaults for both runs.
+ */
+public final class ThreadModelComparison {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("loadtest.concurrency", "2000");
+        DEFAULTS.put("loadtest.warmup", "15s");
+        DEFAULTS.put("loadtest.duration", "60s");
+        DEFAULTS.put("loadtest.controller.read.median", "200ms");
+        DEFAULTS.put("loadtest.controller.read.p99", "1s");
+        DEFAULTS.put("loadtest.controller.write.median", "500ms");
+        DEFAULTS.put("loadtest.controller.write.p99", "2s");
+        DEFAULTS.put("loadtest.threshold.get-scan.p99", "60s");
+        DEFAULTS.put("loadtest.threshold.force-close.p99", "60s");
+        DEFAULTS.put("loadtest.threshold.max-error-rate", "1");
+        DEFAULTS.put("admin.scan-cache.enabled", "false");
+        DEFAULTS.put("controller-app.limiter.enabled", "false");
+        DEFAULTS.put("controller-app.circuit-breaker.enabled", "false");
+        DEFAULTS.put("controller-app.pool.max-connections", "4000");
+        DEFAULTS.put("controller-app.pool.pending-acquire-max-count", "-1");
+    }
+
+    private ThreadModelComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21; run with -Pjava21 on a JDK 21 runtime.");
+            System.exit(2);
+        }
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            settings.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Map<String, JsonNode> reports = new LinkedHashMap<>();
+        for (String mode : List.of("platform", "virtual")) {
+            Path report = Path.of("target", "loadtest-threads-" + mode + ".json");
+            Map<String, String> run = new LinkedHashMap<>(settings);
+            run.put("spring.threads.virtual.enabled", Boolean.toString(mode.equals("virtual")));
+            run.put("loadtest.report", report.toString());
+            Files.deleteIfExists(report);
+            System.out.printf("%n=== %s threads ===%n", mode);
+            int exit = runDriver(run);
+            if (!report.toFile().isFile()) {
+                throw new IllegalStateException(mode + " run wrote no report (exit status " + exit + ")");
+            }
+            reports.put(mode, new ObjectMapper().readTree(report.toFile()));
+        }
+        print(reports);
+    }
+
+    private static int runDriver(Map<String, String> settings) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadTestDriver.class.getName());
+        settings.forEach((key, value) -> command.add("--" + key + "=" + value));
+        return new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+
+    private static void print(Map<String, JsonNode> reports) {
+        System.out.printf("%n%-28s %14s %14s%n", "", "platform", "virtual");
+        row(reports, "throughput (req/s)", report -> report.path("throughput").asDouble());
+        row(reports, "error rate", report -> report.path("errorRate").asDouble());
+        for (String operation : List.of("getScan", "forceCloseScan")) {
+            for (String percentile : List.of("p50Ms", "p99Ms", "p999Ms")) {
+                row(reports, operation + " " + percentile,
+                        report -> report.path("operations").path(operation).path(percentile).asDouble());
+            }
+        }
+    }
+
+    private static void row(Map<String, JsonNode> reports, String label,
+                            ToDoubleFunction<JsonNode> value) {
+        System.out.printf("%-28s %14.2f %14.2f%n", label,
+                value.applyAsDouble(reports.get("platform")), value.applyAsDouble(reports.get("virtual")));
+    }
+}
@@ -1,5 +1,6 @@
 package com.company.adminbackend;
 
+import com.company.adminbackend.config.VirtualThreadsListener;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,6 +8,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class AdminAppBackendApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(AdminAppBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(AdminAppBackendApplication.class);
+        application.addListeners(new VirtualThreadsListener());
+        application.run(args);
     }
 }
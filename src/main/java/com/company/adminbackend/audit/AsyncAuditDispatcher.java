@@ -0,0 +1,246 @@
+package com.company.adminbackend.audit;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves audit writes off the request thread.
+ *
+ * Design decisions:
+ * - Request threads publish into a bounded lock-free AuditRingBuffer; a single dedicated
+ *   writer thread drains it in batches of up to audit.async.batch-size and hands each
+ *   batch to every AuditSink.
+ * - A full buffer is handled according to AuditOverflowPolicy (BLOCK, SPILL or FAIL) so
+ *   the trade-off between latency and durability is an explicit configuration choice.
+ * - The writer holds drainLock for its whole lifetime. After shutdown starts, any thread
+ *   that still publishes drains the buffer itself under that lock, which keeps the buffer
+ *   single-consumer and guarantees no event is stranded once the writer has exited.
+ * - Shutdown (PreDestroy) runs after the web server has stopped accepting requests, waits
+ *   for the writer to flush everything that was accepted, then drains any stragglers.
+ * - A sink failure, in write() or afterWrite(), is logged and does not stop the writer or
+ *   affect the other sinks. Anything else thrown inside the writer loop is logged too and
+ *   the writer carries on draining: it is the ring's only consumer.
+ *   Every event is counted exactly once: written when all sinks accepted it, failed
+ *   otherwise.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.async.enabled", havingValue = "true")
+public class AsyncAuditDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncAuditDispatcher.class);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final List<AuditSink> sinks;
+    private final AuditRingBuffer buffer;
+    private final int batchSize;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final long idleWaitNanos;
+    private final Duration shutdownTimeout;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AsyncAuditDispatcher(List<AuditSink> sinks,
+                                @Value("${audit.async.buffer-size:8192}") int bufferSize,
+                                @Value("${audit.async.batch-size:256}") int batchSize,
+                                @Value("${audit.async.overflow-policy:BLOCK}") AuditOverflowPolicy overflowPolicy,
+                                @Value("${audit.async.block-timeout:5s}") Duration blockTimeout,
+                                @Value("${audit.async.idle-wait:2ms}") Duration idleWait,
+                                @Value("${audit.async.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.sinks = sinks;
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.idleWaitNanos = idleWait.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        log.info("Asynchronous audit pipeline started (capacity={}, batchSize={}, overflowPolicy={})",
+                buffer.capacity(), batchSize, overflowPolicy);
+    }
+
+    /**
+     * Hands an event to the writer thread, applying the overflow policy if the buffer is full.
+     */
+    public void publish(AuditEvent event) {
+        if (!running) {
+            writeBatch(List.of(event));
+            return;
+        }
+        if (!buffer.offer(event)) {
+            handleOverflow(event);
+            return;
+        }
+        if (!running) {
+            // Shutdown began after we published; the writer may already have done its
+            // final drain, so make sure our event is flushed.
+            drainAfterShutdown();
+        }
+    }
+
+    private void handleOverflow(AuditEvent event) {
+        switch (overflowPolicy) {
+            case BLOCK -> awaitCapacity(event);
+            case SPILL -> {
+                spilled.increment();
+                writeBatch(List.of(event));
+            }
+            case FAIL -> {
+                rejected.increment();
+                log.warn("Audit buffer full, rejecting {} {} for {}",
+                        event.getAction(), event.getStatus(), event.getResourceId());
+                throw new AuditBufferFullException();
+            }
+        }
+    }
+
+    private void awaitCapacity(AuditEvent event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (running) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(event)) {
+                if (!running) {
+                    drainAfterShutdown();
+                }
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                rejected.increment();
+                log.warn("Audit buffer still full after {} ms, rejecting {} {} for {}",
+                        TimeUnit.NANOSECONDS.toMillis(blockTimeoutNanos),
+                        event.getAction(), event.getStatus(), event.getResourceId());
+                throw new AuditBufferFullException();
+            }
+        }
+        writeBatch(List.of(event));
+    }
+
+    private void runWriter() {
+        drainLock.lock();
+        try {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    if (buffer.drainTo(batch, batchSize) == 0) {
+                        LockSupport.parkNanos(idleWaitNanos);
+                        continue;
+                    }
+                    writeBatch(batch);
+                } catch (RuntimeException e) {
+                    // The writer is the only consumer; if it died the ring would fill up.
+                    log.error("Audit writer failed on a batch of {} events; continuing", batch.size(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+            drainRemaining(batch);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drainAfterShutdown() {
+        drainLock.lock();
+        try {
+            drainRemaining(new ArrayList<>(batchSize));
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void drainRemaining(List<AuditEvent> batch) {
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Hands the batch to every sink. The batch counts as written only if every sink
+     * accepted it, and as failed (once, not once per sink) otherwise.
+     */
+    private void writeBatch(List<AuditEvent> batch) {
+        boolean allAccepted = true;
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (RuntimeException e) {
+                allAccepted = false;
+                log.error("Audit sink {} failed to write {} events", sink.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+        for (AuditSink sink : sinks) {
+            try {
+                sink.afterWrite(batch, allAccepted);
+            } catch (RuntimeException e) {
+                log.error("Audit sink {} failed after writing {} events", sink.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+        if (allAccepted) {
+            written.add(batch.size());
+        } else {
+            failed.add(batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.error("Audit writer did not finish within {}; {} events still buffered",
+                    shutdownTimeout, buffer.size());
+            return;
+        }
+        drainAfterShutdown();
+        log.info("Asynchronous audit pipeline stopped after writing {} events", written.sum());
+    }
+
+    public int getBufferedEvents() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public long getWrittenEvents() {
+        return written.sum();
+    }
+
+    public long getSpilledEvents() {
+        return spilled.sum();
+    }
+
+    public long getRejectedEvents() {
+        return rejected.sum();
+    }
+
+    /** Events at least one sink failed to write; not included in getWrittenEvents. */
+    public long getFailedEvents() {
+        return failed.sum();
+    }
+}
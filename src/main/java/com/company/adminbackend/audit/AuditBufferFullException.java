@@ -0,0 +1,17 @@
+package com.company.adminbackend.audit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Raised when an audit event cannot be accepted by the asynchronous pipeline.
+ *
+ * Extends ResponseStatusException so the request surfaces as 503 to the AdminApp caller:
+ * an admin operation that cannot be audited must not proceed silently.
+ */
+public class AuditBufferFullException extends ResponseStatusException {
+
+    public AuditBufferFullException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Audit pipeline is saturated");
+    }
+}
@@ -1,6 +1,8 @@
 package com.company.adminbackend.audit;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 
 import java.time.Instant;
 import java.util.List;
@@ -12,8 +14,13 @@ import java.util.List;
  * - Immutable after construction via builder to prevent mutation after logging.
  * - JsonInclude(NON_NULL) keeps log lines compact when optional fields are absent.
  * - correlationId ties the event back to the originating HTTP request (set in MDC by AuditFilter).
+ * - cached is set only when a read was answered from ScanCache instead of ControllerApp.
+ * - jobId is set on the events of an asynchronous force-close job, so they can be matched
+ *   to the job the caller polls (GET /admin/jobs/{jobId}).
+ * - Deserializable through the builder so journaled events (audit WAL) can be replayed.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(builder = AuditEvent.Builder.class)
 public class AuditEvent {
 
     private final String action;
@@ -24,6 +31,8 @@ public class AuditEvent {
     private final Instant timestamp;
     private final String status;
     private final String correlationId;
+    private final Boolean cached;
+    private final String jobId;
 
     private AuditEvent(Builder builder) {
         this.action = builder.action;
@@ -34,6 +43,8 @@ public class AuditEvent {
         this.timestamp = builder.timestamp != null ? builder.timestamp : Instant.now();
         this.status = builder.status;
         this.correlationId = builder.correlationId;
+        this.cached = builder.cached;
+        this.jobId = builder.jobId;
     }
 
     public String getAction() {
@@ -68,10 +79,19 @@ public class AuditEvent {
         return correlationId;
     }
 
+    public Boolean getCached() {
+        return cached;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
+    @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
         private String action;
         private String username;
@@ -81,6 +101,8 @@ public class AuditEvent {
         private Instant timestamp;
         private String status;
         private String correlationId;
+        private Boolean cached;
+        private String jobId;
 
         public Builder action(String action) {
             this.action = action;
@@ -122,6 +144,16 @@ public class AuditEvent {
             return this;
         }
 
+        public Builder cached(Boolean cached) {
+            this.cached = cached;
+            return this;
+        }
+
+        public Builder jobId(String jobId) {
+            this.jobId = jobId;
+            return this;
+        }
+
         public AuditEvent build() {
             return new AuditEvent(this);
         }
@@ -0,0 +1,347 @@
+package com.company.adminbackend.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts AuditEvent to and from its JSON wire form.
+ *
+ * Design decisions:
+ * - Single owner of the audit JSON format so every sink (log lines, WAL records) emits
+ *   byte-identical payloads and replayed events parse back the same way.
+ * - Writing bypasses ObjectMapper: a pooled JsonGenerator streams into a reusable byte
+ *   buffer using pre-encoded field names, so serializing an event allocates only the final
+ *   String or byte[] handed to the sink. The output is byte-compatible with the previous
+ *   ObjectMapper form (same field order, NON_NULL inclusion, ISO-8601 Instant).
+ * - The writers live in a small striped pool rather than a ThreadLocal. With virtual threads
+ *   (boundedElastic on virtual threads, see VirtualThreadsListener) every audit write runs
+ *   on a new thread, so a ThreadLocal writer would be built and thrown away per event. A
+ *   thread takes the writer in its stripe, or builds one if the stripe is empty, and puts
+ *   it back when done; the pool never holds more than one writer per stripe.
+ * - Known action/status values are pre-encoded once; any other value is written normally.
+ * - Timestamps reuse the formatted "yyyy-MM-ddTHH:mm:ss" prefix while consecutive events
+ *   fall in the same second and append the fraction exactly as ISO_INSTANT would.
+ * - The byte generator escapes characters outside the BMP as escaped surrogate pairs, as
+ *   writeValueAsBytes did, while writeValueAsString kept them raw. toJson hands the rare
+ *   event carrying such characters to ObjectMapper so log lines stay identical too.
+ * - Reading (WAL replay) is rare and keeps using ObjectMapper with JavaTimeModule.
+ */
+@Component
+public class AuditEventSerializer {
+
+    private static final SerializedString ACTION = new SerializedString("action");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString ROLES = new SerializedString("roles");
+    private static final SerializedString RESOURCE_ID = new SerializedString("resourceId");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString CORRELATION_ID = new SerializedString("correlationId");
+    private static final SerializedString CACHED = new SerializedString("cached");
+    private static final SerializedString JOB_ID = new SerializedString("jobId");
+
+    private static final Map<String, SerializedString> CONSTANT_VALUES = Stream.of(
+                    "FORCE_CLOSE_SCAN", "GET_SCAN", "LIST_SCANS", "WATCH_SCAN",
+                    "ATTEMPT", "SUCCESS", "FAILURE", "DEADLINE_EXCEEDED", "CANCELLED", "SUBSCRIBED")
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), SerializedString::new));
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final int POOL_STRIPES = Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<EventWriter> writers = new AtomicReferenceArray<>(POOL_STRIPES);
+
+    public AuditEventSerializer() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public String toJson(AuditEvent event) throws JsonProcessingException {
+        if (hasSurrogates(event)) {
+            return objectMapper.writeValueAsString(event);
+        }
+        EventWriter writer = acquire();
+        writer.serialize(event);
+        String json = writer.output.toUtf8String();
+        release(writer);
+        return json;
+    }
+
+    public byte[] toJsonBytes(AuditEvent event) throws JsonProcessingException {
+        EventWriter writer = acquire();
+        writer.serialize(event);
+        byte[] json = writer.output.toByteArray();
+        release(writer);
+        return json;
+    }
+
+    /**
+     * Streams the JSON form of the event to the target without an intermediate copy.
+     */
+    public void writeTo(AuditEvent event, OutputStream target) throws IOException {
+        EventWriter writer = acquire();
+        writer.serialize(event);
+        try {
+            writer.output.writeTo(target);
+        } finally {
+            release(writer);
+        }
+    }
+
+    public AuditEvent fromJson(byte[] json) throws IOException {
+        return objectMapper.readValue(json, AuditEvent.class);
+    }
+
+    /**
+     * Takes the writer from the calling thread's stripe, or builds one. A writer whose
+     * serialize() failed is never released, so a broken generator is not reused.
+     */
+    private EventWriter acquire() {
+        EventWriter writer = writers.getAndSet(stripe(), null);
+        return writer != null ? writer : new EventWriter();
+    }
+
+    private void release(EventWriter writer) {
+        // Lost race for the stripe: drop the extra writer rather than grow the pool.
+        writers.compareAndSet(stripe(), null, writer);
+    }
+
+    @SuppressWarnings("deprecation") // Thread.threadId() is Java 19+; getId() is the same value.
+    private static int stripe() {
+        return (int) Thread.currentThread().getId() & (POOL_STRIPES - 1);
+    }
+
+    private static boolean hasSurrogates(AuditEvent event) {
+        if (hasSurrogates(event.getUsername()) || hasSurrogates(event.getUserId())
+                || hasSurrogates(event.getResourceId()) || hasSurrogates(event.getCorrelationId())
+                || hasSurrogates(event.getAction()) || hasSurrogates(event.getStatus())
+                || hasSurrogates(event.getJobId())) {
+            return true;
+        }
+        List<String> roles = event.getRoles();
+        if (roles != null) {
+            for (int i = 0, n = roles.size(); i < n; i++) {
+                if (hasSurrogates(roles.get(i))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasSurrogates(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0, n = value.length(); i < n; i++) {
+            if (Character.isSurrogate(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class EventWriter {
+
+        private final ReusableOutput output = new ReusableOutput();
+        private final JsonGenerator generator;
+        private final char[] timestamp = new char[40];
+        private long cachedSecond = Long.MIN_VALUE;
+        private int cachedPrefixLength;
+
+        EventWriter() {
+            try {
+                this.generator = jsonFactory.createGenerator(output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Consecutive root values must not be separated by the default space.
+            this.generator.setRootValueSeparator(null);
+        }
+
+        void serialize(AuditEvent event) throws JsonProcessingException {
+            output.reset();
+            try {
+                JsonGenerator g = generator;
+                g.writeStartObject();
+                writeConstant(g, ACTION, event.getAction());
+                writeString(g, USERNAME, event.getUsername());
+                writeString(g, USER_ID, event.getUserId());
+                List<String> roles = event.getRoles();
+                if (roles != null) {
+                    g.writeFieldName(ROLES);
+                    g.writeStartArray();
+                    for (int i = 0, n = roles.size(); i < n; i++) {
+                        g.writeString(roles.get(i));
+                    }
+                    g.writeEndArray();
+                }
+                writeString(g, RESOURCE_ID, event.getResourceId());
+                if (event.getTimestamp() != null) {
+                    g.writeFieldName(TIMESTAMP);
+                    writeTimestamp(g, event.getTimestamp());
+                }
+                writeConstant(g, STATUS, event.getStatus());
+                writeString(g, CORRELATION_ID, event.getCorrelationId());
+                if (event.getCached() != null) {
+                    g.writeFieldName(CACHED);
+                    g.writeBoolean(event.getCached());
+                }
+                writeString(g, JOB_ID, event.getJobId());
+                g.writeEndObject();
+                g.flush();
+            } catch (IOException e) {
+                // The generator may be left mid-object; the caller does not release this
+                // writer, so the next event starts from a fresh one.
+                if (e instanceof JsonProcessingException processingException) {
+                    throw processingException;
+                }
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeString(JsonGenerator g, SerializableString name, String value) throws IOException {
+            if (value != null) {
+                g.writeFieldName(name);
+                g.writeString(value);
+            }
+        }
+
+        private void writeConstant(JsonGenerator g, SerializableString name, String value) throws IOException {
+            if (value != null) {
+                g.writeFieldName(name);
+                SerializedString encoded = CONSTANT_VALUES.get(value);
+                if (encoded != null) {
+                    g.writeString(encoded);
+                } else {
+                    g.writeString(value);
+                }
+            }
+        }
+
+        /**
+         * Writes the instant exactly as DateTimeFormatter.ISO_INSTANT formats it.
+         */
+        private void writeTimestamp(JsonGenerator g, Instant instant) throws IOException {
+            long second = instant.getEpochSecond();
+            if (second != cachedSecond) {
+                LocalDateTime dateTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+                int year = dateTime.getYear();
+                if (year < 0 || year > 9999) {
+                    // ISO_INSTANT uses expanded years here; not worth caching.
+                    g.writeString(DateTimeFormatter.ISO_INSTANT.format(instant));
+                    return;
+                }
+                int p = 0;
+                p = digits(year, 4, p);
+                timestamp[p++] = '-';
+                p = digits(dateTime.getMonthValue(), 2, p);
+                timestamp[p++] = '-';
+                p = digits(dateTime.getDayOfMonth(), 2, p);
+                timestamp[p++] = 'T';
+                p = digits(dateTime.getHour(), 2, p);
+                timestamp[p++] = ':';
+                p = digits(dateTime.getMinute(), 2, p);
+                timestamp[p++] = ':';
+                p = digits(dateTime.getSecond(), 2, p);
+                cachedSecond = second;
+                cachedPrefixLength = p;
+            }
+            int p = cachedPrefixLength;
+            int nano = instant.getNano();
+            if (nano > 0) {
+                timestamp[p++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    p = digits(nano / 1_000_000, 3, p);
+                } else if (nano % 1_000 == 0) {
+                    p = digits(nano / 1_000, 6, p);
+                } else {
+                    p = digits(nano, 9, p);
+                }
+            }
+            timestamp[p++] = 'Z';
+            g.writeString(timestamp, 0, p);
+        }
+
+        private int digits(int value, int width, int offset) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                timestamp[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            return offset + width;
+        }
+    }
+
+    /**
+     * Growable byte buffer that is reset, not reallocated, between events.
+     */
+    private static final class ReusableOutput extends OutputStream {
+
+        private byte[] buffer = new byte[1024];
+        private int count;
+
+        void reset() {
+            if (buffer.length > MAX_RETAINED_BUFFER) {
+                buffer = new byte[1024];
+            }
+            count = 0;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(count + length);
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+            }
+        }
+
+        String toUtf8String() {
+            return new String(buffer, 0, count, StandardCharsets.UTF_8);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, count);
+        }
+
+        void writeTo(OutputStream target) throws IOException {
+            target.write(buffer, 0, count);
+        }
+    }
+}
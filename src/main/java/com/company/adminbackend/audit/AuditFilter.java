@@ -11,7 +11,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * Servlet filter that assigns a unique correlationId to every inbound request.
@@ -25,26 +24,41 @@ import java.util.UUID;
  *   client-side logs with server-side audit events.
  * - MDC is cleared in a finally block to prevent leaking to the next request on the
  *   same thread (important for thread-pool reuse).
+ * - MDC is thread-local, which is also correct on virtual threads: each request runs on
+ *   its own virtual thread and the finally block runs on that same thread, so the value
+ *   never reaches another request. MDC is not inherited by the threads a Mono continues
+ *   on; see ReactorRequestContext.
+ * - The id is kept as a request attribute and the filter also runs on ASYNC dispatches,
+ *   so the thread that writes a Mono/Flux result (and any error logged there) sees the
+ *   same correlationId instead of an empty MDC.
+ * - Generated ids are time-ordered ULIDs from CorrelationIds, which avoids the shared
+ *   SecureRandom behind UUID.randomUUID() on every request without a caller-supplied id.
+ * - The id is forwarded to ControllerApp by CorrelationIdExchangeFilter.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 10)
 public class AuditFilter extends OncePerRequestFilter {
 
     public static final String CORRELATION_ID_KEY = "correlationId";
-    private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    private static final String CORRELATION_ID_ATTRIBUTE = AuditFilter.class.getName() + ".correlationId";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        // Reuse a correlation id from the caller if present; otherwise generate one.
-        String correlationId = request.getHeader(CORRELATION_ID_HEADER);
-        if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString();
+        String correlationId = (String) request.getAttribute(CORRELATION_ID_ATTRIBUTE);
+        if (correlationId == null) {
+            // Reuse a correlation id from the caller if present; otherwise generate one.
+            correlationId = request.getHeader(CORRELATION_ID_HEADER);
+            if (correlationId == null || correlationId.isBlank()) {
+                correlationId = CorrelationIds.next();
+            }
+            request.setAttribute(CORRELATION_ID_ATTRIBUTE, correlationId);
+            response.setHeader(CORRELATION_ID_HEADER, correlationId);
         }
 
         MDC.put(CORRELATION_ID_KEY, correlationId);
-        response.setHeader(CORRELATION_ID_HEADER, correlationId);
 
         try {
             filterChain.doFilter(request, response);
@@ -52,4 +66,9 @@ public class AuditFilter extends OncePerRequestFilter {
             MDC.remove(CORRELATION_ID_KEY);
         }
     }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
 }
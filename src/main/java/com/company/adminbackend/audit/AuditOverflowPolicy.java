@@ -0,0 +1,16 @@
+package com.company.adminbackend.audit;
+
+/**
+ * What AsyncAuditDispatcher does when a request thread publishes into a full ring buffer.
+ */
+public enum AuditOverflowPolicy {
+
+    /** Wait for the writer to free a slot, up to audit.async.block-timeout. */
+    BLOCK,
+
+    /** Write the event synchronously on the caller thread, bypassing the buffer. */
+    SPILL,
+
+    /** Reject the event and fail the request with 503 rather than lose the record. */
+    FAIL
+}
@@ -1,43 +1,80 @@
 package com.company.adminbackend.audit;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Writes structured audit events as JSON to the application log via SLF4J.
+ * Entry point for recording structured audit events.
  *
  * Design decisions:
- * - Uses a dedicated logger named "AUDIT" so ops teams can route audit lines to a
- *   separate log sink (e.g., Splunk index, CloudWatch log group) via logback config.
- * - ObjectMapper is configured once at construction to avoid repeated setup.
- * - JavaTimeModule ensures Instant fields serialize as ISO-8601 strings, not epoch longs.
- * - If JSON serialization somehow fails, the event is logged in toString() form to
- *   avoid silently dropping audit records.
+ * - Callers only see log(AuditEvent); where the event ends up is decided by the
+ *   registered AuditSink beans (LogAuditSink writes to the "AUDIT" logger).
+ * - Synchronous by default: sinks run on the calling request thread, exactly as before.
+ * - When audit.async.enabled=true an AsyncAuditDispatcher is present and events are
+ *   handed to it instead, taking sink I/O off the request latency path.
+ * - Counts events written (or failed) on the synchronous path; the asynchronous path is
+ *   counted by AsyncAuditDispatcher.
+ * - A sink that throws is logged and counted, and the remaining sinks still run, as in
+ *   AsyncAuditDispatcher: an optional sink such as AuditStore failing (disk full, mmap
+ *   error) must neither fail the admin request nor keep the event out of the AUDIT log.
  */
 @Service
 public class AuditService {
 
-    private static final Logger auditLog = LoggerFactory.getLogger("AUDIT");
-    private final ObjectMapper objectMapper;
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    private final List<AuditSink> sinks;
+    private final AsyncAuditDispatcher dispatcher;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
 
-    public AuditService() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    public AuditService(List<AuditSink> sinks, ObjectProvider<AsyncAuditDispatcher> dispatcher) {
+        this.sinks = sinks;
+        this.dispatcher = dispatcher.getIfAvailable();
     }
 
     public void log(AuditEvent event) {
-        try {
-            String json = objectMapper.writeValueAsString(event);
-            auditLog.info("AUDIT_EVENT {}", json);
-        } catch (JsonProcessingException e) {
-            // Fallback: never lose an audit record even if serialization fails.
-            auditLog.error("Failed to serialize audit event, raw: {}", event, e);
+        if (dispatcher != null) {
+            dispatcher.publish(event);
+            return;
+        }
+        List<AuditEvent> batch = List.of(event);
+        boolean allAccepted = true;
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (RuntimeException e) {
+                allAccepted = false;
+                log.error("Audit sink {} failed to write {} {} for {}", sink.getClass().getSimpleName(),
+                        event.getAction(), event.getStatus(), event.getResourceId(), e);
+            }
+        }
+        for (AuditSink sink : sinks) {
+            try {
+                sink.afterWrite(batch, allAccepted);
+            } catch (RuntimeException e) {
+                log.error("Audit sink {} failed after writing {} {} for {}", sink.getClass().getSimpleName(),
+                        event.getAction(), event.getStatus(), event.getResourceId(), e);
+            }
         }
+        if (allAccepted) {
+            written.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    public long getWrittenEvents() {
+        return written.sum();
+    }
+
+    public long getFailedEvents() {
+        return failed.sum();
     }
 }
@@ -0,0 +1,29 @@
+package com.company.adminbackend.audit;
+
+import java.util.List;
+
+/**
+ * Destination for structured audit events.
+ *
+ * Design decisions:
+ * - AuditService fans every event out to all AuditSink beans, so new destinations can be
+ *   added without touching the callers in the service layer.
+ * - The contract is batch-oriented: the asynchronous dispatcher hands sinks whole batches
+ *   so they can amortize I/O, while the synchronous path passes a single-element list.
+ * - Implementations must be thread-safe; in synchronous mode they are called concurrently
+ *   from request threads.
+ * - After a batch has been offered to every sink, each sink gets afterWrite() on the same
+ *   thread, telling it whether all sinks accepted the batch. The WAL uses it to release
+ *   journaled records only once the other sinks hold them.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> events);
+
+    /**
+     * Called once the events have been offered to every sink; shipped is true only if
+     * every sink accepted them.
+     */
+    default void afterWrite(List<AuditEvent> events, boolean shipped) {
+    }
+}
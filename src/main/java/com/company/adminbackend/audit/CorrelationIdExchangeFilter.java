@@ -0,0 +1,36 @@
+package com.company.adminbackend.audit;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient filter that forwards the request's correlationId to ControllerApp as
+ * X-Correlation-Id.
+ *
+ * Design decisions:
+ * - The id is read from the Reactor Context (see ReactorRequestContext), not from MDC,
+ *   because the exchange is usually subscribed on a Reactor or Netty thread where MDC is
+ *   empty.
+ * - A header the caller set explicitly is left alone.
+ * - Calls made outside a request (e.g. batched lookups flushed on a timer, which serve
+ *   several requests at once) have no correlationId in their Context and pass through
+ *   unchanged.
+ */
+public class CorrelationIdExchangeFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            String correlationId = ReactorRequestContext.correlationId(context);
+            if (correlationId == null || request.headers().containsKey(AuditFilter.CORRELATION_ID_HEADER)) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .header(AuditFilter.CORRELATION_ID_HEADER, correlationId)
+                    .build());
+        });
+    }
+}
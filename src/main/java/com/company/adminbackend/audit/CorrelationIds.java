@@ -0,0 +1,46 @@
+package com.company.adminbackend.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates correlation ids for requests that arrive without X-Correlation-Id.
+ *
+ * Design decisions:
+ * - ULID layout: 48-bit millisecond timestamp followed by 80 random bits, written as 26
+ *   Crockford base32 characters. Ids sort by creation time as plain strings, so log lines
+ *   and audit-store index entries written close together stay close together.
+ * - Randomness comes from ThreadLocalRandom rather than the shared SecureRandom behind
+ *   UUID.randomUUID(): no lock, no contention between request threads. Correlation ids
+ *   are identifiers, not secrets; 80 random bits per millisecond keep collisions
+ *   negligible.
+ * - The characters are written into a byte array and turned into a Latin-1 String, which
+ *   is one copy and no charset decoding.
+ */
+public final class CorrelationIds {
+
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+    private static final int LENGTH = 26;
+
+    private CorrelationIds() {
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] chars = new byte[LENGTH];
+        encode(System.currentTimeMillis(), chars, 0, 10);
+        encode(random.nextLong(), chars, 10, 8);
+        encode(random.nextLong(), chars, 18, 8);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Writes the low 5 * count bits of value as count base32 characters, most significant first.
+     */
+    private static void encode(long value, byte[] chars, int offset, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.adminbackend.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes structured audit events as JSON to the application log via SLF4J.
+ *
+ * Design decisions:
+ * - Uses a dedicated logger named "AUDIT" so ops teams can route audit lines to a
+ *   separate log sink (e.g., Splunk index, CloudWatch log group) via logback config.
+ * - JSON encoding is delegated to AuditEventSerializer so log lines match every other
+ *   audit destination byte for byte.
+ * - If JSON serialization somehow fails, the event is logged in toString() form to
+ *   avoid silently dropping audit records.
+ * - Ordered right after AuditWalSink and ahead of optional sinks such as AuditStore, so
+ *   the primary audit log has the event before anything that may fail runs.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LogAuditSink implements AuditSink {
+
+    private static final Logger auditLog = LoggerFactory.getLogger("AUDIT");
+    private final AuditEventSerializer serializer;
+
+    public LogAuditSink(AuditEventSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            try {
+                String json = serializer.toJson(event);
+                auditLog.info("AUDIT_EVENT {}", json);
+            } catch (JsonProcessingException e) {
+                // Fallback: never lose an audit record even if serialization fails.
+                auditLog.error("Failed to serialize audit event, raw: {}", event, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.company.adminbackend.audit;
+
+import org.slf4j.MDC;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Carries request-scoped state from the servlet thread into a Reactor pipeline.
+ *
+ * Design decisions:
+ * - MDC and SecurityContextHolder are thread-bound and are not visible on the Netty and
+ *   boundedElastic threads a Mono continues on. Controllers call capture() on the request
+ *   thread and attach the result with contextWrite; downstream code reads it back from
+ *   the subscriber Context.
+ * - The correlationId is stored under AuditFilter.CORRELATION_ID_KEY; the SecurityContext
+ *   is stored the way ReactiveSecurityContextHolder expects, so reactive code can use
+ *   ReactiveSecurityContextHolder.getContext() as usual.
+ * - withMdc() restores the correlationId around blocking side effects such as audit
+ *   writes, so their log lines keep the [%X{correlationId}] prefix.
+ */
+public final class ReactorRequestContext {
+
+    private ReactorRequestContext() {
+    }
+
+    /**
+     * Snapshot of the calling thread's correlationId and SecurityContext.
+     */
+    public static Context capture() {
+        Context context = Context.empty();
+        String correlationId = MDC.get(AuditFilter.CORRELATION_ID_KEY);
+        if (correlationId != null) {
+            context = context.put(AuditFilter.CORRELATION_ID_KEY, correlationId);
+        }
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        if (securityContext.getAuthentication() != null) {
+            context = context.putAll(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(securityContext)).readOnly());
+        }
+        return context;
+    }
+
+    public static String correlationId(ContextView context) {
+        return context.getOrDefault(AuditFilter.CORRELATION_ID_KEY, null);
+    }
+
+    /**
+     * Runs the action with the given correlationId in MDC, restoring the previous value after.
+     */
+    public static void withMdc(String correlationId, Runnable action) {
+        if (correlationId == null) {
+            action.run();
+            return;
+        }
+        String previous = MDC.get(AuditFilter.CORRELATION_ID_KEY);
+        MDC.put(AuditFilter.CORRELATION_ID_KEY, correlationId);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                MDC.put(AuditFilter.CORRELATION_ID_KEY, previous);
+            } else {
+                MDC.remove(AuditFilter.CORRELATION_ID_KEY);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.adminbackend.audit.store;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Criteria for an AuditStore lookup: equality filters on the indexed fields, an optional
+ * [from, to) time range, a page size and an opaque resume cursor.
+ *
+ * The cursor is parsed at build() time so a malformed value is rejected before any
+ * response bytes are streamed.
+ */
+public class AuditQuery {
+
+    private final Map<IndexedField, String> keyFilters;
+    private final Instant from;
+    private final Instant to;
+    private final int limit;
+    private final long cursorPartition;
+    private final long cursorOffset;
+
+    private AuditQuery(Builder builder) {
+        this.keyFilters = new EnumMap<>(IndexedField.class);
+        putIfPresent(IndexedField.RESOURCE_ID, builder.resourceId);
+        putIfPresent(IndexedField.USER_ID, builder.userId);
+        putIfPresent(IndexedField.CORRELATION_ID, builder.correlationId);
+        putIfPresent(IndexedField.ACTION, builder.action);
+        this.from = builder.from;
+        this.to = builder.to;
+        if (builder.limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = builder.limit;
+        if (builder.cursor == null || builder.cursor.isBlank()) {
+            this.cursorPartition = -1;
+            this.cursorOffset = 0;
+        } else {
+            int separator = builder.cursor.indexOf('-');
+            try {
+                this.cursorPartition = Long.parseLong(builder.cursor.substring(0, separator));
+                this.cursorOffset = Long.parseLong(builder.cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + builder.cursor);
+            }
+        }
+    }
+
+    private void putIfPresent(IndexedField field, String value) {
+        if (value != null && !value.isEmpty()) {
+            keyFilters.put(field, value);
+        }
+    }
+
+    static String cursor(long partition, long offset) {
+        return partition + "-" + offset;
+    }
+
+    Map<IndexedField, String> getKeyFilters() {
+        return keyFilters;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    long getCursorPartition() {
+        return cursorPartition;
+    }
+
+    long getCursorOffset() {
+        return cursorOffset;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String resourceId;
+        private String userId;
+        private String correlationId;
+        private String action;
+        private Instant from;
+        private Instant to;
+        private int limit = 100;
+        private String cursor;
+
+        public Builder resourceId(String resourceId) {
+            this.resourceId = resourceId;
+            return this;
+        }
+
+        public Builder userId(String userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        public Builder correlationId(String correlationId) {
+            this.correlationId = correlationId;
+            return this;
+        }
+
+        public Builder action(String action) {
+            this.action = action;
+            return this;
+        }
+
+        public Builder from(Instant from) {
+            this.from = from;
+            return this;
+        }
+
+        public Builder to(Instant to) {
+            this.to = to;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder cursor(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public AuditQuery build() {
+            return new AuditQuery(this);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.company.adminbackend.audit.store;
+
+import com.company.adminbackend.audit.AuditEvent;
+import com.company.adminbackend.audit.AuditEventSerializer;
+import com.company.adminbackend.audit.AuditSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded, append-only audit store with secondary indexes, queried by AuditController.
+ *
+ * Design decisions:
+ * - Registered as an AuditSink, so it receives exactly the events the log does (batched
+ *   when the async dispatcher is on) without changes to AdminService.
+ * - Events are partitioned by write-time bucket (audit.store.bucket, default 1h); each
+ *   StorePartition is the time-bucket index and tracks its min/max event timestamp, so
+ *   range queries skip whole partitions without touching them.
+ * - Within a partition, resourceId, userId, correlationId and action are indexed through
+ *   posting lists of record offsets; multiple filters are intersected before any record
+ *   is read, and matching records are copied to the caller as the raw stored JSON.
+ * - A partition also rolls when its data file reaches audit.store.max-partition-size.
+ *   Sealed partitions are memory-mapped and addressed with int offsets, so the setting is
+ *   capped at 1GB at startup; the batch appended before a roll can overshoot it, and the
+ *   cap leaves that overshoot well inside Integer.MAX_VALUE.
+ *   Partitions whose newest event is older than audit.store.retention are deleted.
+ * - Pagination resumes from an opaque "partition-offset" cursor, so a page costs the same
+ *   regardless of how deep into the result set it is.
+ * - Ordered last among the sinks: it is an optional query copy, so when it fails (disk
+ *   full, mmap error) the WAL and the AUDIT log already have the event, and AuditService
+ *   logs the failure instead of failing the request.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "audit.store.enabled", havingValue = "true")
+public class AuditStore implements AuditSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditStore.class);
+
+    private static final long MAX_PARTITION_BYTES = DataSize.ofGigabytes(1).toBytes();
+
+    /**
+     * Receives the stored JSON of each matching event; the buffer is reused between calls.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte[] json, int offset, int length) throws IOException;
+    }
+
+    private final AuditEventSerializer serializer;
+    private final Path root;
+    private final long bucketMillis;
+    private final long maxPartitionBytes;
+    private final long retentionMillis;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<StorePartition> partitions = new CopyOnWriteArrayList<>();
+    private StorePartition active;
+    private long activeBucket;
+
+    public AuditStore(AuditEventSerializer serializer,
+                      @Value("${audit.store.directory}") Path root,
+                      @Value("${audit.store.bucket:1h}") Duration bucket,
+                      @Value("${audit.store.max-partition-size:256MB}") DataSize maxPartitionSize,
+                      @Value("${audit.store.retention:30d}") Duration retention) throws IOException {
+        this.serializer = serializer;
+        this.root = root;
+        this.bucketMillis = bucket.toMillis();
+        if (maxPartitionSize.toBytes() <= 0 || maxPartitionSize.toBytes() > MAX_PARTITION_BYTES) {
+            throw new IllegalArgumentException("audit.store.max-partition-size must be between 1B and 1GB, was "
+                    + maxPartitionSize);
+        }
+        this.maxPartitionBytes = maxPartitionSize.toBytes();
+        this.retentionMillis = retention.toMillis();
+
+        Files.createDirectories(root);
+        openExistingPartitions();
+    }
+
+    private void openExistingPartitions() throws IOException {
+        List<Path> directories;
+        try (Stream<Path> files = Files.list(root)) {
+            directories = files.filter(path -> StorePartition.sequenceOf(path) >= 0)
+                    .sorted((a, b) -> Long.compare(StorePartition.sequenceOf(a), StorePartition.sequenceOf(b)))
+                    .toList();
+        }
+        for (Path directory : directories) {
+            partitions.add(StorePartition.open(directory, serializer));
+        }
+        long currentBucket = System.currentTimeMillis() / bucketMillis;
+        for (int i = 0; i < partitions.size(); i++) {
+            StorePartition partition = partitions.get(i);
+            if (partition.isSealed()) {
+                continue;
+            }
+            boolean last = i == partitions.size() - 1;
+            if (last && (partition.records() == 0 || partition.maxTimestamp() / bucketMillis == currentBucket)) {
+                active = partition;
+                activeBucket = currentBucket;
+            } else {
+                partition.seal();
+            }
+        }
+        log.info("Audit store opened at {} with {} partitions", root, partitions.size());
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        List<AuditEvent> accepted = new ArrayList<>(events.size());
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            try {
+                payloads.add(serializer.toJsonBytes(event));
+                accepted.add(event);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit event for the store, raw: {}", event, e);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            long bucket = now / bucketMillis;
+            if (active == null || bucket != activeBucket || active.dataSize() >= maxPartitionBytes) {
+                roll(bucket, now);
+            }
+            active.append(accepted, payloads);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to audit store", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the active partition, opens the next one and applies retention.
+     * Called with writeLock held.
+     */
+    private void roll(long bucket, long now) throws IOException {
+        if (active != null) {
+            try {
+                active.seal();
+            } catch (IOException e) {
+                // Left unsealed; it will be rebuilt and sealed on the next startup.
+                log.error("Failed to seal audit store partition {}", active.sequence(), e);
+            }
+        }
+        long sequence = partitions.isEmpty() ? 0 : partitions.get(partitions.size() - 1).sequence() + 1;
+        active = StorePartition.create(root, sequence);
+        activeBucket = bucket;
+        partitions.add(active);
+
+        for (StorePartition partition : partitions) {
+            if (partition != active && partition.maxTimestamp() < now - retentionMillis) {
+                partitions.remove(partition);
+                partition.delete();
+                log.info("Deleted audit store partition {} past retention", partition.sequence());
+            }
+        }
+    }
+
+    /**
+     * Streams events matching the query in storage order.
+     *
+     * @return the cursor for the next page, or null if there are no further matches
+     */
+    public String query(AuditQuery query, RecordConsumer consumer) throws IOException {
+        long fromMillis = query.getFrom() != null ? query.getFrom().toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = query.getTo() != null ? query.getTo().toEpochMilli() : Long.MAX_VALUE;
+        int remaining = query.getLimit();
+        int[] emitted = new int[1];
+        RecordConsumer counting = (json, offset, length) -> {
+            consumer.accept(json, offset, length);
+            emitted[0]++;
+        };
+
+        for (StorePartition partition : partitions) {
+            if (partition.sequence() < query.getCursorPartition()
+                    || !partition.overlaps(fromMillis, toMillis)) {
+                continue;
+            }
+            long start = partition.sequence() == query.getCursorPartition() ? query.getCursorOffset() : 0;
+            emitted[0] = 0;
+            long resume = partition.scan(query, start, fromMillis, toMillis, remaining, counting);
+            if (resume >= 0) {
+                return AuditQuery.cursor(partition.sequence(), resume);
+            }
+            remaining -= emitted[0];
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            for (StorePartition partition : partitions) {
+                partition.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+}
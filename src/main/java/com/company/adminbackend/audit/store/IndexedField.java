@@ -0,0 +1,29 @@
+package com.company.adminbackend.audit.store;
+
+import com.company.adminbackend.audit.AuditEvent;
+
+import java.util.function.Function;
+
+/**
+ * AuditEvent fields that AuditStore maintains secondary indexes for.
+ *
+ * The declaration order is the on-disk order of the per-field sections in a sealed
+ * partition index, so new fields must only ever be appended.
+ */
+enum IndexedField {
+
+    RESOURCE_ID(AuditEvent::getResourceId),
+    USER_ID(AuditEvent::getUserId),
+    CORRELATION_ID(AuditEvent::getCorrelationId),
+    ACTION(AuditEvent::getAction);
+
+    private final Function<AuditEvent, String> extractor;
+
+    IndexedField(Function<AuditEvent, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    String valueOf(AuditEvent event) {
+        return extractor.apply(event);
+    }
+}
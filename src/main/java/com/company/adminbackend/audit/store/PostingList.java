@@ -0,0 +1,110 @@
+package com.company.adminbackend.audit.store;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Ascending list of record offsets for one indexed key.
+ *
+ * Design decisions:
+ * - In memory (active partition) offsets live in a growable long[]; on disk (sealed
+ *   partition) they are stored as LEB128 varints of the delta to the previous offset, which
+ *   typically needs 1-3 bytes per posting instead of 8.
+ * - Offsets are appended in file order, so the list is sorted by construction and can be
+ *   intersected with a linear merge.
+ */
+final class PostingList {
+
+    private long[] offsets = new long[2];
+    private int size;
+
+    void add(long offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = offset;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(offsets, size);
+    }
+
+    int encodedSize() {
+        int bytes = 0;
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            bytes += varintSize(offsets[i] - previous);
+            previous = offsets[i];
+        }
+        return bytes;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long delta = offsets[i] - previous;
+            while ((delta & ~0x7FL) != 0) {
+                out.writeByte((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.writeByte((int) delta);
+            previous = offsets[i];
+        }
+    }
+
+    static long[] decode(ByteBuffer buffer, int position, int count) {
+        long[] result = new long[count];
+        long previous = 0;
+        int p = position;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(p++);
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += delta;
+            result[i] = previous;
+        }
+        return result;
+    }
+
+    /**
+     * Intersection of ascending offset arrays.
+     */
+    static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int varintSize(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+}
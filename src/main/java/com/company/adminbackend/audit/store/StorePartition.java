@@ -0,0 +1,557 @@
+package com.company.adminbackend.audit.store;
+
+import com.company.adminbackend.audit.AuditEvent;
+import com.company.adminbackend.audit.AuditEventSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * One time bucket of the audit store: an append-only data file plus its secondary indexes.
+ *
+ * Data file record layout:
+ * <pre>
+ *   int payloadLength, int crc32c(payload), long timestampEpochMillis, byte[] payload (JSON)
+ * </pre>
+ *
+ * Index file layout (written once, when the partition is sealed):
+ * <pre>
+ *   header    : int magic, int version, long minTs, long maxTs, long records, long dataSize,
+ *               per IndexedField: long directoryOffset, int keyCount
+ *   directory : per field, keyCount entries sorted by UTF-8 key bytes:
+ *               long keyOffset, int keyLength, int postingCount, long postingOffset
+ *   keys      : UTF-8 key bytes
+ *   postings  : varint-delta encoded record offsets (see PostingList)
+ * </pre>
+ *
+ * Design decisions:
+ * - While active, postings are kept in heap maps (bounded by one bucket's worth of keys).
+ *   Sealing writes them to the index file and drops them; sealed partitions are read
+ *   through memory-mapped files, so old data never occupies heap.
+ * - Key lookups in a sealed partition binary-search the fixed-width directory directly in
+ *   the mapped index; no per-partition key table is loaded.
+ * - Readers snapshot the committed data size and postings under the read lock and then
+ *   read records without it: the data file is append-only, so bytes below the snapshot
+ *   never change.
+ * - An unsealed partition found at startup is rebuilt by scanning its data file, which
+ *   also truncates a torn tail left by a crash.
+ */
+final class StorePartition {
+
+    private static final Logger log = LoggerFactory.getLogger(StorePartition.class);
+
+    static final String DIRECTORY_PREFIX = "part-";
+    private static final String DATA_FILE = "events.dat";
+    private static final String INDEX_FILE = "index.bin";
+    private static final String INDEX_TEMP_FILE = "index.bin.tmp";
+
+    private static final int RECORD_HEADER_BYTES = 16;
+    private static final int INDEX_MAGIC = 0x41494458;
+    private static final int INDEX_VERSION = 1;
+    private static final IndexedField[] FIELDS = IndexedField.values();
+    private static final int INDEX_FIELDS_OFFSET = 40;
+    private static final int INDEX_HEADER_BYTES = INDEX_FIELDS_OFFSET + FIELDS.length * 12;
+    private static final int DIRECTORY_ENTRY_BYTES = 24;
+
+    private final Path directory;
+    private final long sequence;
+    private final FileChannel channel;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CRC32C crc = new CRC32C();
+
+    private long dataSize;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long records;
+    private EnumMap<IndexedField, Map<String, PostingList>> memoryIndex;
+    private MappedByteBuffer sealedData;
+    private MappedByteBuffer sealedIndex;
+    private boolean deleted;
+
+    private StorePartition(Path directory, long sequence, FileChannel channel) {
+        this.directory = directory;
+        this.sequence = sequence;
+        this.channel = channel;
+    }
+
+    static StorePartition create(Path root, long sequence) throws IOException {
+        Path directory = Files.createDirectories(root.resolve(directoryName(sequence)));
+        FileChannel channel = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        StorePartition partition = new StorePartition(directory, sequence, channel);
+        partition.memoryIndex = newMemoryIndex();
+        return partition;
+    }
+
+    static StorePartition open(Path directory, AuditEventSerializer serializer) throws IOException {
+        long sequence = sequenceOf(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        StorePartition partition = new StorePartition(directory, sequence, channel);
+        if (Files.exists(directory.resolve(INDEX_FILE))) {
+            partition.loadSealed();
+        } else {
+            partition.rebuild(serializer);
+        }
+        return partition;
+    }
+
+    static String directoryName(long sequence) {
+        return String.format("%s%020d", DIRECTORY_PREFIX, sequence);
+    }
+
+    static long sequenceOf(Path directory) {
+        String name = directory.getFileName().toString();
+        if (!name.startsWith(DIRECTORY_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(DIRECTORY_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // --- Writing (single writer, serialized by AuditStore) ---
+
+    void append(List<AuditEvent> events, List<byte[]> payloads) throws IOException {
+        int total = 0;
+        for (byte[] payload : payloads) {
+            total += RECORD_HEADER_BYTES + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (int i = 0; i < payloads.size(); i++) {
+            byte[] payload = payloads.get(i);
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.putLong(events.get(i).getTimestamp().toEpochMilli());
+            buffer.put(payload);
+        }
+        buffer.flip();
+        long position = dataSize;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+
+        lock.writeLock().lock();
+        try {
+            long offset = dataSize;
+            for (int i = 0; i < events.size(); i++) {
+                index(events.get(i), offset);
+                offset += RECORD_HEADER_BYTES + payloads.get(i).length;
+            }
+            dataSize = offset;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(AuditEvent event, long offset) {
+        for (IndexedField field : FIELDS) {
+            String key = field.valueOf(event);
+            if (key != null) {
+                memoryIndex.get(field).computeIfAbsent(key, k -> new PostingList()).add(offset);
+            }
+        }
+        long timestamp = event.getTimestamp().toEpochMilli();
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        records++;
+    }
+
+    /**
+     * Persists the in-memory postings as an index file and switches to mapped reads.
+     */
+    void seal() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (memoryIndex == null || deleted) {
+                return;
+            }
+            channel.force(true);
+            writeIndexFile();
+            loadSealed();
+            memoryIndex = null;
+            log.debug("Sealed audit store partition {} ({} records)", directory, records);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeIndexFile() throws IOException {
+        List<List<Map.Entry<byte[], PostingList>>> sections = new ArrayList<>(FIELDS.length);
+        long directoryBytes = 0;
+        long keyBytes = 0;
+        for (IndexedField field : FIELDS) {
+            List<Map.Entry<byte[], PostingList>> entries = new ArrayList<>();
+            for (Map.Entry<String, PostingList> entry : memoryIndex.get(field).entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                entries.add(Map.entry(key, entry.getValue()));
+                keyBytes += key.length;
+            }
+            entries.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+            sections.add(entries);
+            directoryBytes += (long) entries.size() * DIRECTORY_ENTRY_BYTES;
+        }
+
+        Path temp = directory.resolve(INDEX_TEMP_FILE);
+        try (FileChannel indexChannel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(indexChannel), 64 * 1024));
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            out.writeLong(records);
+            out.writeLong(dataSize);
+
+            long directoryOffset = INDEX_HEADER_BYTES;
+            for (List<Map.Entry<byte[], PostingList>> entries : sections) {
+                out.writeLong(directoryOffset);
+                out.writeInt(entries.size());
+                directoryOffset += (long) entries.size() * DIRECTORY_ENTRY_BYTES;
+            }
+
+            long keyOffset = INDEX_HEADER_BYTES + directoryBytes;
+            long postingOffset = keyOffset + keyBytes;
+            for (List<Map.Entry<byte[], PostingList>> entries : sections) {
+                for (Map.Entry<byte[], PostingList> entry : entries) {
+                    out.writeLong(keyOffset);
+                    out.writeInt(entry.getKey().length);
+                    out.writeInt(entry.getValue().size());
+                    out.writeLong(postingOffset);
+                    keyOffset += entry.getKey().length;
+                    postingOffset += entry.getValue().encodedSize();
+                }
+            }
+            for (List<Map.Entry<byte[], PostingList>> entries : sections) {
+                for (Map.Entry<byte[], PostingList> entry : entries) {
+                    out.write(entry.getKey());
+                }
+            }
+            for (List<Map.Entry<byte[], PostingList>> entries : sections) {
+                for (Map.Entry<byte[], PostingList> entry : entries) {
+                    entry.getValue().writeTo(out);
+                }
+            }
+            out.flush();
+            indexChannel.force(true);
+        }
+        Files.move(temp, directory.resolve(INDEX_FILE), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void loadSealed() throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.READ)) {
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+            if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION) {
+                throw new IOException("Unrecognized audit store index in " + directory);
+            }
+            minTimestamp = index.getLong(8);
+            maxTimestamp = index.getLong(16);
+            records = index.getLong(24);
+            dataSize = index.getLong(32);
+            sealedIndex = index;
+        }
+        sealedData = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+    }
+
+    private void rebuild(AuditEventSerializer serializer) throws IOException {
+        memoryIndex = newMemoryIndex();
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (offset + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            readFully(header, offset);
+            int length = header.getInt(0);
+            if (length <= 0 || offset + RECORD_HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, offset + RECORD_HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            index(serializer.fromJson(payload.array()), offset);
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        if (offset < size) {
+            log.warn("Truncating torn tail of audit store partition {} at {} of {} bytes", directory, offset, size);
+            channel.truncate(offset);
+        }
+        dataSize = offset;
+    }
+
+    // --- Reading ---
+
+    /**
+     * Emits records at or after startOffset that match the query, up to limit of them.
+     *
+     * @return the offset to resume from if the limit was reached, or -1 if this partition
+     *         has no further matches
+     */
+    long scan(AuditQuery query, long startOffset, long fromMillis, long toMillis, int limit,
+              AuditStore.RecordConsumer consumer) throws IOException {
+        long end;
+        long[] candidates = null;
+        ByteBuffer mapped;
+        lock.readLock().lock();
+        try {
+            if (deleted) {
+                return -1;
+            }
+            end = dataSize;
+            mapped = sealedData;
+            for (Map.Entry<IndexedField, String> filter : query.getKeyFilters().entrySet()) {
+                long[] postings = postings(filter.getKey(), filter.getValue());
+                candidates = candidates == null ? postings : PostingList.intersect(candidates, postings);
+                if (candidates.length == 0) {
+                    return -1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        RecordReader reader = new RecordReader(mapped);
+        int emitted = 0;
+        try {
+            if (candidates != null) {
+                int i = lowerBound(candidates, startOffset);
+                for (; i < candidates.length && candidates[i] < end; i++) {
+                    long next = reader.read(candidates[i]);
+                    if (reader.timestamp >= fromMillis && reader.timestamp < toMillis) {
+                        consumer.accept(reader.payload, 0, reader.length);
+                        if (++emitted == limit) {
+                            return next;
+                        }
+                    }
+                }
+            } else {
+                long offset = startOffset;
+                while (offset < end) {
+                    long next = reader.read(offset);
+                    if (reader.timestamp >= fromMillis && reader.timestamp < toMillis) {
+                        consumer.accept(reader.payload, 0, reader.length);
+                        if (++emitted == limit) {
+                            return next;
+                        }
+                    }
+                    offset = next;
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // Partition removed by retention while we were reading it.
+            return -1;
+        }
+        return -1;
+    }
+
+    private long[] postings(IndexedField field, String key) {
+        if (memoryIndex != null) {
+            PostingList postings = memoryIndex.get(field).get(key);
+            return postings == null ? new long[0] : postings.toArray();
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer index = sealedIndex;
+        int fieldHeader = INDEX_FIELDS_OFFSET + field.ordinal() * 12;
+        long directoryOffset = index.getLong(fieldHeader);
+        int low = 0;
+        int high = index.getInt(fieldHeader + 8) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = (int) (directoryOffset + (long) mid * DIRECTORY_ENTRY_BYTES);
+            int cmp = compareKey(index, (int) index.getLong(entry), index.getInt(entry + 8), keyBytes);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return PostingList.decode(index, (int) index.getLong(entry + 16), index.getInt(entry + 12));
+            }
+        }
+        return new long[0];
+    }
+
+    private static int compareKey(ByteBuffer index, int offset, int length, byte[] key) {
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Byte.compareUnsigned(index.get(offset + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static int lowerBound(long[] values, long target) {
+        int index = Arrays.binarySearch(values, target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Reads one record into a reusable payload buffer, from the mapped data file when the
+     * partition is sealed or with positional reads while it is still active.
+     */
+    private final class RecordReader {
+
+        private final ByteBuffer mapped;
+        private final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        private byte[] payload = new byte[512];
+        private int length;
+        private long timestamp;
+
+        RecordReader(ByteBuffer mapped) {
+            this.mapped = mapped;
+        }
+
+        long read(long offset) throws IOException {
+            if (mapped != null) {
+                int position = Math.toIntExact(offset);
+                length = mapped.getInt(position);
+                timestamp = mapped.getLong(position + 8);
+                ensurePayloadCapacity();
+                mapped.get(position + RECORD_HEADER_BYTES, payload, 0, length);
+            } else {
+                header.clear();
+                readFully(header, offset);
+                length = header.getInt(0);
+                timestamp = header.getLong(8);
+                ensurePayloadCapacity();
+                readFully(ByteBuffer.wrap(payload, 0, length), offset + RECORD_HEADER_BYTES);
+            }
+            return offset + RECORD_HEADER_BYTES + length;
+        }
+
+        private void ensurePayloadCapacity() {
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of audit store data in " + directory);
+            }
+            position += read;
+        }
+    }
+
+    // --- Lifecycle ---
+
+    void close() {
+        lock.writeLock().lock();
+        try {
+            if (memoryIndex != null) {
+                channel.force(true);
+            }
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit store partition {}", directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void delete() {
+        lock.writeLock().lock();
+        try {
+            deleted = true;
+            channel.close();
+            Files.deleteIfExists(directory.resolve(INDEX_FILE));
+            Files.deleteIfExists(directory.resolve(INDEX_TEMP_FILE));
+            Files.deleteIfExists(directory.resolve(DATA_FILE));
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Failed to delete expired audit store partition {}", directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    boolean isSealed() {
+        lock.readLock().lock();
+        try {
+            return memoryIndex == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long dataSize() {
+        lock.readLock().lock();
+        try {
+            return dataSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long records() {
+        lock.readLock().lock();
+        try {
+            return records;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long maxTimestamp() {
+        lock.readLock().lock();
+        try {
+            return maxTimestamp;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean overlaps(long fromMillis, long toMillis) {
+        lock.readLock().lock();
+        try {
+            return records > 0 && maxTimestamp >= fromMillis && minTimestamp < toMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static EnumMap<IndexedField, Map<String, PostingList>> newMemoryIndex() {
+        EnumMap<IndexedField, Map<String, PostingList>> index = new EnumMap<>(IndexedField.class);
+        for (IndexedField field : FIELDS) {
+            index.put(field, new HashMap<>());
+        }
+        return index;
+    }
+}
@@ -0,0 +1,112 @@
+package com.company.adminbackend.audit.wal;
+
+import com.company.adminbackend.audit.AuditEvent;
+import com.company.adminbackend.audit.AuditEventSerializer;
+import com.company.adminbackend.audit.AuditSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-emits audit WAL segments left behind by a crash to the other audit sinks at startup.
+ *
+ * Design decisions:
+ * - Runs in afterSingletonsInstantiated(), i.e. after every sink exists but before the
+ *   web server starts, so replayed events are shipped before new traffic arrives.
+ * - Replays to every sink except the WAL itself; the records are already journaled.
+ * - A segment is deleted only after all of its records were handed to the sinks. Corrupt
+ *   or torn tails are skipped with a warning by WalSegment.read(), and a record that
+ *   cannot be deserialized is skipped on its own.
+ * - Replay never aborts startup. An I/O error leaves the segment for the next startup; a
+ *   sink that throws while shipping it gets the segment renamed to *.wal.failed, so it is
+ *   kept for an operator but not replayed (and partly duplicated) on every restart.
+ * - replay() is public so operators can also trigger it from a maintenance hook.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.wal.enabled", havingValue = "true")
+public class AuditWalReplayer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWalReplayer.class);
+    private static final int REPLAY_BATCH_SIZE = 256;
+    private static final String QUARANTINE_SUFFIX = ".failed";
+
+    private final AuditWalSink walSink;
+    private final List<AuditSink> targets;
+    private final AuditEventSerializer serializer;
+
+    public AuditWalReplayer(AuditWalSink walSink, List<AuditSink> sinks, AuditEventSerializer serializer) {
+        this.walSink = walSink;
+        this.targets = sinks.stream().filter(sink -> sink != walSink).toList();
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        replay();
+    }
+
+    public void replay() {
+        for (Path segment : walSink.unshippedSegments()) {
+            if (!Files.exists(segment)) {
+                continue;
+            }
+            try {
+                int replayed = replaySegment(segment);
+                Files.deleteIfExists(segment);
+                log.info("Replayed {} audit events from unshipped WAL segment {}", replayed, segment);
+            } catch (IOException e) {
+                log.error("Failed to replay audit WAL segment {}; it will be retried on next startup", segment, e);
+            } catch (RuntimeException e) {
+                quarantine(segment, e);
+            }
+        }
+    }
+
+    private void quarantine(Path segment, RuntimeException cause) {
+        Path failed = segment.resolveSibling(segment.getFileName() + QUARANTINE_SUFFIX);
+        try {
+            Files.move(segment, failed, StandardCopyOption.REPLACE_EXISTING);
+            log.error("Failed to ship audit WAL segment {}; moved it to {} for manual recovery",
+                    segment, failed, cause);
+        } catch (IOException e) {
+            log.error("Failed to ship audit WAL segment {} and could not quarantine it; "
+                    + "it will be retried on next startup", segment, cause);
+        }
+    }
+
+    private int replaySegment(Path segment) throws IOException {
+        List<AuditEvent> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+        int[] skipped = {0};
+        int records = WalSegment.read(segment, payload -> {
+            try {
+                batch.add(serializer.fromJson(payload));
+            } catch (IOException | RuntimeException e) {
+                skipped[0]++;
+                log.warn("Skipping unreadable audit record in {}", segment, e);
+            }
+            if (batch.size() == REPLAY_BATCH_SIZE) {
+                ship(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            ship(batch);
+        }
+        return records - skipped[0];
+    }
+
+    private void ship(List<AuditEvent> batch) {
+        for (AuditSink sink : targets) {
+            sink.write(batch);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.company.adminbackend.audit.wal;
+
+import com.company.adminbackend.audit.AuditEvent;
+import com.company.adminbackend.audit.AuditEventSerializer;
+import com.company.adminbackend.audit.AuditSink;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Durable audit sink: journals every event to a segmented, memory-mapped write-ahead log
+ * before the remaining sinks see it.
+ *
+ * Design decisions:
+ * - Ordered first among the AuditSink beans so an event is on disk before it is shipped to
+ *   the log, which is what makes crash replay meaningful.
+ * - Group commit: write() returns only once its records are fsynced, but concurrent writers
+ *   share fsyncs. The first waiter becomes the leader and forces the segment; everything
+ *   appended meanwhile is covered by the next leader's single force. With the async
+ *   dispatcher enabled, one fsync covers a whole batch.
+ * - Segments roll over by size (audit.wal.segment-size) or age (audit.wal.max-segment-age).
+ *   A segment is deleted once it is sealed and every record in it has been acknowledged:
+ *   afterWrite(events, true) reports that all other sinks accepted the batch, and the
+ *   batch's journal positions are credited to the segments that hold them. A batch that
+ *   some sink rejected is never acknowledged, so its segments stay on disk (and are
+ *   replayed at the next startup) instead of being lost.
+ * - On clean shutdown fully acknowledged segments are removed; the rest are kept for
+ *   replay.
+ * - Segments left behind by a crash are not reopened for writing; AuditWalReplayer
+ *   re-emits them at startup (at-least-once, so a few events may be logged twice).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "audit.wal.enabled", havingValue = "true")
+public class AuditWalSink implements AuditSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditWalSink.class);
+
+    private final AuditEventSerializer serializer;
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxSegmentAgeMillis;
+    private final List<Path> unshippedSegments;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ArrayDeque<Journal> journals = new ArrayDeque<>();
+    private Journal active;
+    private long nextSequence;
+    private long writtenPosition;
+
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition committed = commitLock.newCondition();
+    private boolean syncInProgress;
+    private long durablePosition;
+
+    /** Journal positions [from, to) of batches written but not yet acknowledged, by batch identity. */
+    private final Map<List<AuditEvent>, long[]> pending = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+
+    public AuditWalSink(AuditEventSerializer serializer,
+                        @Value("${audit.wal.directory}") Path directory,
+                        @Value("${audit.wal.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${audit.wal.max-segment-age:1h}") Duration maxSegmentAge) throws IOException {
+        this.serializer = serializer;
+        this.directory = directory;
+        this.segmentBytes = segmentSize.toBytes();
+        this.maxSegmentAgeMillis = maxSegmentAge.toMillis();
+
+        Files.createDirectories(directory);
+        this.unshippedSegments = listSegments(directory);
+        this.nextSequence = unshippedSegments.isEmpty()
+                ? 0
+                : WalSegment.sequenceOf(unshippedSegments.get(unshippedSegments.size() - 1)) + 1;
+        if (!unshippedSegments.isEmpty()) {
+            log.warn("Found {} unshipped audit WAL segments in {}", unshippedSegments.size(), directory);
+        }
+    }
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        // Serialize outside the append lock so concurrent writers only contend on the copy.
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            try {
+                payloads.add(serializer.toJsonBytes(event));
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit event for the WAL, raw: {}", event, e);
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        long from;
+        long position;
+        appendLock.lock();
+        try {
+            from = writtenPosition;
+            for (byte[] payload : payloads) {
+                append(payload);
+            }
+            position = writtenPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        pending.put(events, new long[] {from, position});
+        awaitDurable(position);
+    }
+
+    /**
+     * Credits the batch's records to their segments once every other sink accepted it and
+     * deletes segments that are sealed and fully acknowledged.
+     */
+    @Override
+    public void afterWrite(List<AuditEvent> events, boolean shipped) {
+        long[] range = pending.remove(events);
+        if (range == null) {
+            return;
+        }
+        if (!shipped) {
+            log.warn("Audit batch of {} events was not accepted by every sink; its WAL records are kept for replay",
+                    events.size());
+            return;
+        }
+        appendLock.lock();
+        try {
+            for (Journal journal : journals) {
+                long overlap = Math.min(range[1], journal.end) - Math.max(range[0], journal.first);
+                if (overlap > 0) {
+                    journal.acknowledged += overlap;
+                }
+            }
+            deleteAcknowledged();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(byte[] payload) {
+        if (active == null || active.segment.ageMillis() >= maxSegmentAgeMillis) {
+            roll(segmentBytes);
+        }
+        if (!active.segment.append(payload)) {
+            roll(Math.max(segmentBytes, WalSegment.minimumSize(payload.length)));
+            active.segment.append(payload);
+        }
+        writtenPosition++;
+        records.increment();
+    }
+
+    /**
+     * Seals the active segment and opens the next one. Called with appendLock held.
+     */
+    private void roll(long size) {
+        if (active != null) {
+            // Sealing forces the segment, so every record in it is durable from here on.
+            active.seal(writtenPosition);
+            deleteAcknowledged();
+        }
+        active = new Journal(WalSegment.create(directory, nextSequence++, size), writtenPosition);
+        journals.addLast(active);
+        log.debug("Opened audit WAL segment {}", active.segment.path());
+    }
+
+    /**
+     * Deletes sealed segments whose records have all been acknowledged. Called with
+     * appendLock held.
+     */
+    private void deleteAcknowledged() {
+        for (Iterator<Journal> it = journals.iterator(); it.hasNext(); ) {
+            Journal journal = it.next();
+            if (journal.isShipped()) {
+                journal.segment.delete();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Blocks until every record up to the given position has been fsynced, sharing the
+     * fsync with any other writer that is waiting at the same time.
+     */
+    private void awaitDurable(long position) {
+        commitLock.lock();
+        try {
+            while (durablePosition < position) {
+                if (syncInProgress) {
+                    committed.awaitUninterruptibly();
+                    continue;
+                }
+                syncInProgress = true;
+                long target = -1;
+                commitLock.unlock();
+                try {
+                    WalSegment segment;
+                    appendLock.lock();
+                    try {
+                        target = writtenPosition;
+                        segment = active.segment;
+                    } finally {
+                        appendLock.unlock();
+                    }
+                    // Records before target live either in this segment or in one that was
+                    // already forced when it was sealed.
+                    segment.force();
+                    fsyncs.increment();
+                } catch (RuntimeException e) {
+                    target = -1;
+                    throw e;
+                } finally {
+                    commitLock.lock();
+                    syncInProgress = false;
+                    durablePosition = Math.max(durablePosition, target);
+                    committed.signalAll();
+                }
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Segments written by a previous process that were never shipped, oldest first.
+     */
+    List<Path> unshippedSegments() {
+        return unshippedSegments;
+    }
+
+    @PreDestroy
+    public void close() {
+        appendLock.lock();
+        try {
+            // Called after the audit dispatcher has flushed. Segments holding records that
+            // some sink never accepted stay on disk for AuditWalReplayer.
+            if (active != null) {
+                active.seal(writtenPosition);
+                active = null;
+            }
+            deleteAcknowledged();
+            if (!journals.isEmpty()) {
+                log.warn("Keeping {} audit WAL segments with unacknowledged records for replay", journals.size());
+                journals.clear();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        log.info("Audit WAL closed after {} records and {} fsyncs", records.sum(), fsyncs.sum());
+    }
+
+    public long getRecordsWritten() {
+        return records.sum();
+    }
+
+    public long getFsyncs() {
+        return fsyncs.sum();
+    }
+
+    /**
+     * A segment and the journal positions it holds: [first, end), end is open until sealed.
+     */
+    private static final class Journal {
+
+        final WalSegment segment;
+        final long first;
+        long end = Long.MAX_VALUE;
+        long acknowledged;
+
+        Journal(WalSegment segment, long first) {
+            this.segment = segment;
+            this.first = first;
+        }
+
+        void seal(long position) {
+            segment.close();
+            end = position;
+        }
+
+        boolean isShipped() {
+            return end != Long.MAX_VALUE && acknowledged >= end - first;
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> WalSegment.sequenceOf(path) >= 0)
+                    .sorted((a, b) -> Long.compare(WalSegment.sequenceOf(a), WalSegment.sequenceOf(b)))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list audit WAL directory " + directory, e);
+        }
+    }
+}
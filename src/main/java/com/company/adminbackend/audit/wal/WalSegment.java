@@ -0,0 +1,196 @@
+package com.company.adminbackend.audit.wal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One pre-allocated, memory-mapped file of the audit write-ahead log.
+ *
+ * Layout:
+ * <pre>
+ *   header : int magic ("AWL1"), int version
+ *   record : int payloadLength, int crc32c(payload), byte[payloadLength] payload
+ *   ...      a zero length marks the end of the written region
+ * </pre>
+ *
+ * Design decisions:
+ * - The file is mapped once at its full size, so an append is a memory copy into the page
+ *   cache; durability is decided separately by force(), which the sink batches.
+ * - Each record carries a CRC so a torn write at crash time is detected on replay and the
+ *   segment is read up to the last intact record instead of failing outright.
+ * - Not thread-safe: AuditWalSink serializes appends under its own lock.
+ */
+final class WalSegment {
+
+    private static final Logger log = LoggerFactory.getLogger(WalSegment.class);
+
+    static final String FILE_PREFIX = "audit-";
+    static final String FILE_SUFFIX = ".wal";
+
+    private static final int MAGIC = 0x41574C31;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_OVERHEAD = 8;
+
+    private final Path path;
+    private final long sequence;
+    private final long createdAtMillis;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+
+    private WalSegment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.sequence = sequence;
+        this.createdAtMillis = System.currentTimeMillis();
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static WalSegment create(Path directory, long sequence, long segmentBytes) {
+        Path path = directory.resolve(fileName(sequence));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            return new WalSegment(path, sequence, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit WAL segment " + path, e);
+        }
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%s%020d%s", FILE_PREFIX, sequence, FILE_SUFFIX);
+    }
+
+    /**
+     * Parses the sequence number from a segment file name, or returns -1 if the name
+     * does not belong to a WAL segment.
+     */
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static long minimumSize(int payloadLength) {
+        // Room for the header, the record and a terminating zero length.
+        return HEADER_BYTES + RECORD_OVERHEAD + payloadLength + Integer.BYTES;
+    }
+
+    /**
+     * Copies one record into the mapped region. Returns false if it does not fit.
+     */
+    boolean append(byte[] payload) {
+        if (buffer.remaining() < RECORD_OVERHEAD + payload.length + Integer.BYTES) {
+            return false;
+        }
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit WAL segment {}", path, e);
+        }
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete shipped audit WAL segment {}", path, e);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long ageMillis() {
+        return System.currentTimeMillis() - createdAtMillis;
+    }
+
+    /**
+     * Streams every intact record of a segment file to the consumer, stopping at the end
+     * marker or at the first record that is truncated or fails its CRC check.
+     *
+     * @return the number of records read
+     */
+    static int read(Path path, Consumer<byte[]> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                log.warn("Audit WAL segment {} is too short to contain a header, skipping", path);
+                return 0;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Audit WAL segment {} has an unknown header, skipping", path);
+                return 0;
+            }
+            CRC32C crc = new CRC32C();
+            int records = 0;
+            try {
+                while (buffer.remaining() >= RECORD_OVERHEAD) {
+                    int length = buffer.getInt();
+                    if (length == 0) {
+                        break;
+                    }
+                    int expectedCrc = buffer.getInt();
+                    if (length < 0 || length > buffer.remaining()) {
+                        log.warn("Audit WAL segment {} has a truncated record after {} records", path, records);
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    buffer.get(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != expectedCrc) {
+                        log.warn("Audit WAL segment {} has a corrupt record after {} records", path, records);
+                        break;
+                    }
+                    consumer.accept(payload);
+                    records++;
+                }
+            } catch (BufferUnderflowException e) {
+                log.warn("Audit WAL segment {} ends mid-record after {} records", path, records);
+            }
+            return records;
+        }
+    }
+}
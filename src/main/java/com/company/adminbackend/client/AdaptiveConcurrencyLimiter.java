@@ -0,0 +1,127 @@
+package com.company.adminbackend.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps concurrent calls to ControllerApp at a limit that follows observed latency.
+ *
+ * Design decisions:
+ * - Gradient algorithm: the limit is scaled by (tolerance * baseline RTT / recent RTT),
+ *   clamped to [0.5, 1], plus a small queue allowance of sqrt(limit). While latency stays
+ *   near the baseline the limit grows; once calls queue up inside ControllerApp and latency
+ *   rises, the limit shrinks before threads and connections pile up.
+ * - Recent RTT is a fast moving average (~10 calls) and the baseline a slow one (~600
+ *   calls). Averages rather than the minimum RTT, so a workload with a normal slow tail
+ *   does not look permanently overloaded. The baseline follows a lasting change in
+ *   ControllerApp latency, and is pulled down quickly when latency drops well below it.
+ * - A dropped call (timeout, connection failure, 5xx) multiplies the limit by backoff-ratio,
+ *   the AIMD-style reaction to overload that latency alone would signal too late.
+ * - Acquisition is a CAS on the in-flight counter; only the limit update takes a lock.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RECENT_RTT_WEIGHT = 0.1;
+    private static final double BASELINE_RTT_WEIGHT = 1.0 / 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double recentRttNanos;
+    private double baselineRttNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double rttTolerance, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a slot if fewer than limit calls are in flight. Every successful acquire must be
+     * followed by exactly one onSuccess, onDropped or onIgnore.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        inFlight.decrementAndGet();
+        updateLock.lock();
+        try {
+            if (recentRttNanos == 0) {
+                recentRttNanos = rttNanos;
+                baselineRttNanos = rttNanos;
+            } else {
+                recentRttNanos += RECENT_RTT_WEIGHT * (rttNanos - recentRttNanos);
+                baselineRttNanos += BASELINE_RTT_WEIGHT * (rttNanos - baselineRttNanos);
+                if (baselineRttNanos > 2 * recentRttNanos) {
+                    baselineRttNanos *= 0.95;
+                }
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * baselineRttNanos / recentRttNanos));
+            double queueAllowance = Math.sqrt(estimatedLimit);
+            double target = estimatedLimit * gradient + queueAllowance;
+            update(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        updateLock.lock();
+        try {
+            update(estimatedLimit * backoffRatio);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Releases the slot without a sample, e.g. for a cancelled call or a 4xx answer.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,202 @@
+package com.company.adminbackend.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calls to ControllerApp while it is failing and probes for its recovery.
+ *
+ * Design decisions:
+ * - Count-based window: the outcome of the last window-size calls is kept in a ring of
+ *   booleans; once minimum-calls are recorded and the failure rate reaches the threshold
+ *   the breaker opens. A count window reacts at the same speed at any traffic level.
+ * - OPEN rejects every call for open-duration, then the next caller moves the breaker to
+ *   HALF_OPEN, where up to half-open-probes calls are let through. If all of them succeed
+ *   the breaker closes with an empty window; the first failure reopens it.
+ * - Only failures that say ControllerApp is unhealthy (5xx, timeouts, connection errors)
+ *   are recorded as failures; the caller decides that and reports a 4xx as a success.
+ * - The CLOSED path reads one volatile field; recording an outcome and state transitions
+ *   take the lock.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int recordedCalls;
+    private int recordedFailures;
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtNanos;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenProbes) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Returns true if the call may proceed. Every permitted call must be followed by exactly
+     * one onSuccess, onFailure or onIgnore.
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    rejected.increment();
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesIssued = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesIssued >= halfOpenProbes) {
+                    rejected.increment();
+                    return false;
+                }
+                probesIssued++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> record(false);
+                case HALF_OPEN -> {
+                    if (++probesSucceeded >= halfOpenProbes) {
+                        close();
+                    }
+                }
+                case OPEN -> {
+                    // Result of a call started before the breaker opened.
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    record(true);
+                    if (recordedCalls >= minimumCalls
+                            && recordedFailures >= failureRateThreshold * recordedCalls) {
+                        open();
+                    }
+                }
+                case HALF_OPEN -> open();
+                case OPEN -> {
+                    // Already open.
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the permission without an outcome (e.g. the caller cancelled), so a half-open
+     * probe slot is not lost.
+     */
+    public void onIgnore() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+                probesIssued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == windowSize) {
+            if (outcomes[outcomeIndex]) {
+                recordedFailures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[outcomeIndex] = failure;
+        if (failure) {
+            recordedFailures++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % windowSize;
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        state = State.OPEN;
+        openings.increment();
+    }
+
+    private void close() {
+        outcomeIndex = 0;
+        recordedCalls = 0;
+        recordedFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** Time until an open breaker lets the next probe through; zero unless OPEN. */
+    public Duration getRemainingOpenDuration() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAtNanos);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    /** Failure rate over the current window, 0..1; recorded only while CLOSED. */
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return recordedCalls == 0 ? 0 : (double) recordedFailures / recordedCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getOpenings() {
+        return openings.sum();
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.adminbackend.client;
+
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Live state of the ControllerApp connection pool.
+ *
+ * Design decisions:
+ * - Registered with the Reactor Netty ConnectionProvider as its MeterRegistrar. Reactor
+ *   Netty creates one pool per remote address (and per protocol), so the gauges sum over
+ *   every pool currently registered.
+ * - Gauges are read from the pools on demand, so they cost nothing between reads.
+ * - Acquire latency (request start until a pooled connection or HTTP/2 stream is ready)
+ *   is recorded by WebClientConfig through HttpClient.mapConnect as count, total and max.
+ */
+@Component
+public class ControllerAppPoolMetrics implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+    private final LongAdder acquires = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(key(poolName, id, remoteAddress), metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(key(poolName, id, remoteAddress));
+    }
+
+    private static String key(String poolName, String id, SocketAddress remoteAddress) {
+        return poolName + '|' + id + '|' + remoteAddress;
+    }
+
+    public void recordAcquire(long nanos) {
+        acquires.increment();
+        acquireNanos.add(nanos);
+        maxAcquireNanos.accumulate(nanos);
+    }
+
+    private int sum(ToIntFunction<ConnectionPoolMetrics> gauge) {
+        int total = 0;
+        for (ConnectionPoolMetrics metrics : pools.values()) {
+            total += gauge.applyAsInt(metrics);
+        }
+        return total;
+    }
+
+    /** Connections currently handed out to requests. */
+    public int getActiveConnections() {
+        return sum(ConnectionPoolMetrics::acquiredSize);
+    }
+
+    public int getIdleConnections() {
+        return sum(ConnectionPoolMetrics::idleSize);
+    }
+
+    public int getAllocatedConnections() {
+        return sum(ConnectionPoolMetrics::allocatedSize);
+    }
+
+    public int getPendingAcquires() {
+        return sum(ConnectionPoolMetrics::pendingAcquireSize);
+    }
+
+    public int getMaxConnections() {
+        return sum(ConnectionPoolMetrics::maxAllocatedSize);
+    }
+
+    public long getAcquireCount() {
+        return acquires.sum();
+    }
+
+    public long getAcquireTotalNanos() {
+        return acquireNanos.sum();
+    }
+
+    public long getAcquireMaxNanos() {
+        return maxAcquireNanos.get();
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.adminbackend.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Raised without calling ControllerApp when the circuit breaker is open or the
+ * concurrency limit is reached.
+ *
+ * Extends ResponseStatusException so the request surfaces as 503 to the AdminApp caller,
+ * with Retry-After when the breaker knows how long it will stay open. It goes through the
+ * same error path as a failed upstream call, so AdminService records a FAILURE event.
+ */
+public class ControllerAppUnavailableException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    private ControllerAppUnavailableException(String reason, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    static ControllerAppUnavailableException circuitOpen(Duration retryAfter) {
+        return new ControllerAppUnavailableException(
+                "ControllerApp is unavailable (circuit open); request rejected without calling it", retryAfter);
+    }
+
+    static ControllerAppUnavailableException concurrencyLimited() {
+        return new ControllerAppUnavailableException(
+                "ControllerApp is overloaded (concurrency limit reached); request rejected without calling it", null);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (retryAfter == null) {
+            return HttpHeaders.EMPTY;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        return headers;
+    }
+}
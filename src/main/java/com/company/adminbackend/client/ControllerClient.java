@@ -1,78 +1,479 @@
 package com.company.adminbackend.client;
 
+import com.company.adminbackend.config.ControllerAppProperties;
+import com.company.adminbackend.deadline.DeadlineExceededException;
 import com.company.adminbackend.model.ScanResponse;
 import com.company.adminbackend.security.ServiceTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * HTTP client for calling ControllerApp endpoints.
  *
  * Design decisions:
  * - Uses WebClient (non-blocking) instead of RestTemplate which is in maintenance mode.
- * - Each call fetches the service token from ServiceTokenProvider, which internally
- *   caches the token and only refreshes when expired.
- * - .block() converts the reactive Mono to a synchronous result. This is acceptable
- *   because AdminAppBackend is a servlet-stack application; if the service later
- *   migrates to WebFlux, .block() can be removed.
+ * - Each call takes the service token from ServiceTokenProvider, which holds it in
+ *   memory and refreshes it in the background before it expires.
+ * - Every call returns a Mono and nothing blocks: AdminController hands the Mono to
+ *   Spring MVC as an async result, so no servlet thread is held while ControllerApp
+ *   is being called.
  * - Error responses from ControllerApp are mapped to ResponseStatusException so they
  *   propagate as proper HTTP errors to the AdminApp caller.
+ * - With controller-app.batch.enabled=true, concurrent getScan calls are coalesced by
+ *   ScanLookupBatcher into POST /api/scans/lookup requests; the per-scan endpoint is
+ *   still used for lone lookups and whenever ControllerApp lacks the bulk endpoint.
+ * - With controller-app.hedge.enabled=true, getScan is hedged by HedgingPolicy: a slow
+ *   lookup gets a second per-scan request (bypassing the batch window) and the first
+ *   answer wins. forceCloseScan is not idempotent and is never hedged.
+ * - Every HTTP exchange passes a CircuitBreaker and an AdaptiveConcurrencyLimiter first.
+ *   When the breaker is open or the limit is reached the call fails at once with
+ *   ControllerAppUnavailableException (503) instead of queueing behind a slow ControllerApp.
+ *   5xx and transport errors count against ControllerApp; 4xx answers are normal outcomes.
+ *   The service-token fetch is outside the guard, so identity-provider trouble does not
+ *   open the breaker. A call cut short by the caller's deadline says nothing about
+ *   ControllerApp either and is released like a cancellation.
+ * - Every exchange, including the ones rejected up front, is timed in the
+ *   controller.app.requests histogram, tagged by operation, outcome and HTTP status;
+ *   never by scanId, so the series count stays bounded. Each Timer is built once per tag
+ *   combination and kept in a map, so the hot path is a lookup rather than a registry
+ *   builder and a registration.
+ * - listScans streams GET /api/scans as NDJSON: records are decoded one at a time and
+ *   requested only as fast as the AdminApp caller consumes them, so memory stays flat
+ *   however many scans match. The guard covers opening the stream: the status line
+ *   decides success or failure and the time to the response headers is the latency
+ *   sample, because a long listing is slow by design, not because ControllerApp is.
+ * - Per-scan lookups keep ControllerApp's ETag with the scan (ScanVersion). getScanVersion
+ *   revalidates a version that has one with If-None-Match, and a 304 returns the version
+ *   already held, with no body downloaded or decoded. Lookups answered by the bulk
+ *   endpoint carry no ETag and are fetched in full next time. A 304 is a success for the
+ *   breaker and limiter.
+ * - The *Raw variants return ControllerApp's body bytes and content type without decoding
+ *   them (RawScan), for endpoints that pass the body through unchanged. The body is read
+ *   into a byte array before the response is released, so no pooled buffer outlives the
+ *   exchange. Raw reads always use the per-scan endpoint (a bulk answer would have to be
+ *   decoded to split it) and are still hedged.
  */
 @Component
 public class ControllerClient {
 
     private static final Logger log = LoggerFactory.getLogger(ControllerClient.class);
 
+    private static final String REQUEST_TIMER = "controller.app.requests";
+    private static final String NO_STATUS = "NONE";
+
+    private static final ParameterizedTypeReference<List<ScanResponse>> SCAN_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * A scan and the ETag ControllerApp sent with it; etag is null if it sent none.
+     */
+    public record ScanVersion(ScanResponse scan, String etag) {
+    }
+
+    /**
+     * ControllerApp's response body as sent; body is null when it answered 304 Not Modified.
+     */
+    public record RawScan(byte[] body, MediaType contentType, String etag) {
+
+        public boolean notModified() {
+            return body == null;
+        }
+    }
+
     private final WebClient webClient;
     private final ServiceTokenProvider serviceTokenProvider;
+    private final ScanLookupBatcher scanLookupBatcher;
+    private final HedgingPolicy hedgingPolicy;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> requestTimers = new ConcurrentHashMap<>();
 
-    public ControllerClient(WebClient controllerAppWebClient, ServiceTokenProvider serviceTokenProvider) {
+    public ControllerClient(WebClient controllerAppWebClient,
+                            ServiceTokenProvider serviceTokenProvider,
+                            ControllerAppProperties properties,
+                            MeterRegistry meterRegistry) {
         this.webClient = controllerAppWebClient;
         this.serviceTokenProvider = serviceTokenProvider;
+        this.meterRegistry = meterRegistry;
+        ControllerAppProperties.Batch batch = properties.getBatch();
+        this.scanLookupBatcher = batch.isEnabled()
+                ? new ScanLookupBatcher(this::lookupScans, this::fetchScan,
+                        batch.getWindow(), batch.getMaxSize(), batch.getUnsupportedBackoff())
+                : null;
+        ControllerAppProperties.Hedge hedge = properties.getHedge();
+        this.hedgingPolicy = hedge.isEnabled()
+                ? new HedgingPolicy(hedge.getPercentile(), hedge.getMinDelay(), hedge.getMaxDelay(),
+                        hedge.getBudgetRatio(), hedge.getBudgetBurst())
+                : null;
+        ControllerAppProperties.Limiter limiter = properties.getLimiter();
+        this.concurrencyLimiter = limiter.isEnabled()
+                ? new AdaptiveConcurrencyLimiter(limiter.getInitialLimit(), limiter.getMinLimit(),
+                        limiter.getMaxLimit(), limiter.getRttTolerance(), limiter.getBackoffRatio())
+                : null;
+        ControllerAppProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        this.circuitBreaker = breaker.isEnabled()
+                ? new CircuitBreaker(breaker.getWindowSize(), breaker.getMinimumCalls(),
+                        breaker.getFailureRateThreshold(), breaker.getOpenDuration(), breaker.getHalfOpenProbes())
+                : null;
     }
 
     /**
      * Calls ControllerApp to force-close the specified scan.
      */
-    public ScanResponse forceCloseScan(String scanId) {
-        log.debug("Calling ControllerApp to force-close scan {}", scanId);
-        return webClient.post()
-                .uri("/api/scan/{scanId}/force-close", scanId)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceTokenProvider.getServiceToken())
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, clientResponse ->
-                    clientResponse.bodyToMono(String.class)
-                        .map(body -> new ResponseStatusException(
-                                clientResponse.statusCode(),
-                                "ControllerApp error: " + body
-                        ))
-                )
-                .bodyToMono(ScanResponse.class)
-                .block();
+    public Mono<ScanResponse> forceCloseScan(String scanId) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to force-close scan {}", scanId);
+                    return guarded("force_close", webClient.post()
+                            .uri("/api/scan/{scanId}/force-close", scanId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntity(ScanResponse.class));
+                });
+    }
+
+    /**
+     * forceCloseScan without decoding the response body.
+     */
+    public Mono<RawScan> forceCloseScanRaw(String scanId) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to force-close scan {}", scanId);
+                    return guarded("force_close", webClient.post()
+                            .uri("/api/scan/{scanId}/force-close", scanId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntity(byte[].class)
+                            .map(ControllerClient::toRaw));
+                });
     }
 
     /**
-     * Calls ControllerApp to retrieve scan details.
+     * getScan without decoding the response body; ifNoneMatch (may be null) is forwarded
+     * to ControllerApp, whose 304 comes back as a RawScan without a body.
      */
-    public ScanResponse getScan(String scanId) {
-        log.debug("Calling ControllerApp to get scan {}", scanId);
-        return webClient.get()
-                .uri("/api/scan/{scanId}", scanId)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceTokenProvider.getServiceToken())
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, clientResponse ->
-                    clientResponse.bodyToMono(String.class)
-                        .map(body -> new ResponseStatusException(
-                                clientResponse.statusCode(),
-                                "ControllerApp error: " + body
-                        ))
-                )
-                .bodyToMono(ScanResponse.class)
-                .block();
+    public Mono<RawScan> getScanRaw(String scanId, String ifNoneMatch) {
+        if (hedgingPolicy != null) {
+            return hedgingPolicy.hedge(() -> fetchScanRaw(scanId, ifNoneMatch),
+                    () -> fetchScanRaw(scanId, ifNoneMatch));
+        }
+        return fetchScanRaw(scanId, ifNoneMatch);
+    }
+
+    private Mono<RawScan> fetchScanRaw(String scanId, String ifNoneMatch) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to get scan {}", scanId);
+                    WebClient.RequestHeadersSpec<?> request = webClient.get()
+                            .uri("/api/scan/{scanId}", scanId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+                    if (ifNoneMatch != null) {
+                        request = request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+                    }
+                    return guarded("get_scan", request
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntity(byte[].class)
+                            .map(ControllerClient::toRaw));
+                });
+    }
+
+    private static ResponseEntity<RawScan> toRaw(ResponseEntity<byte[]> entity) {
+        HttpHeaders headers = entity.getHeaders();
+        byte[] body = entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                ? null
+                : entity.getBody() != null ? entity.getBody() : new byte[0];
+        MediaType contentType = headers.getContentType() != null
+                ? headers.getContentType()
+                : MediaType.APPLICATION_JSON;
+        return ResponseEntity.status(entity.getStatusCode()).body(new RawScan(body, contentType, headers.getETag()));
+    }
+
+    /**
+     * Calls ControllerApp to retrieve scan details; goes through ScanLookupBatcher when
+     * batching is enabled and through HedgingPolicy when hedging is enabled.
+     */
+    public Mono<ScanResponse> getScan(String scanId) {
+        if (hedgingPolicy != null) {
+            return hedgingPolicy.hedge(() -> lookupScan(scanId), () -> fetchScan(scanId));
+        }
+        return lookupScan(scanId);
+    }
+
+    /**
+     * Like getScan, but keeps ControllerApp's ETag. When previous carries one, ControllerApp
+     * is asked with If-None-Match on the per-scan endpoint and a 304 returns previous.
+     */
+    public Mono<ScanVersion> getScanVersion(String scanId, ScanVersion previous) {
+        if (previous != null && previous.etag() != null) {
+            return fetchScanVersion(scanId, previous);
+        }
+        if (hedgingPolicy == null && scanLookupBatcher == null) {
+            return fetchScanVersion(scanId, null);
+        }
+        return getScan(scanId).map(scan -> new ScanVersion(scan, null));
+    }
+
+    private Mono<ScanResponse> lookupScan(String scanId) {
+        return scanLookupBatcher != null ? scanLookupBatcher.lookup(scanId) : fetchScan(scanId);
+    }
+
+    private Mono<ScanResponse> fetchScan(String scanId) {
+        return fetchScanVersion(scanId, null).map(ScanVersion::scan);
+    }
+
+    private Mono<ScanVersion> fetchScanVersion(String scanId, ScanVersion previous) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to get scan {}", scanId);
+                    WebClient.RequestHeadersSpec<?> request = webClient.get()
+                            .uri("/api/scan/{scanId}", scanId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+                    if (previous != null) {
+                        request = request.header(HttpHeaders.IF_NONE_MATCH, previous.etag());
+                    }
+                    return guarded("get_scan", request
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntity(ScanResponse.class)
+                            .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                                    .body(toVersion(entity, previous))));
+                });
+    }
+
+    private static ScanVersion toVersion(ResponseEntity<ScanResponse> entity, ScanVersion previous) {
+        if (entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return previous;
+        }
+        ScanResponse scan = entity.getBody();
+        return scan != null ? new ScanVersion(scan, entity.getHeaders().getETag()) : null;
+    }
+
+    /**
+     * Streams the scans matching the filter; null arguments are not sent.
+     */
+    public Flux<ScanResponse> listScans(String status, Instant from, Instant to) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to list scans (status={}, from={}, to={})", status, from, to);
+                    return guarded("list_scans", webClient.get()
+                            .uri(uri -> uri.path("/api/scans")
+                                    .queryParamIfPresent("status", Optional.ofNullable(status))
+                                    .queryParamIfPresent("from", Optional.ofNullable(from))
+                                    .queryParamIfPresent("to", Optional.ofNullable(to))
+                                    .build())
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntityFlux(ScanResponse.class));
+                })
+                .flatMapMany(Function.identity());
+    }
+
+    /**
+     * Bulk lookup; ControllerApp returns the scans it knows and omits unknown ids.
+     */
+    private Mono<List<ScanResponse>> lookupScans(List<String> scanIds) {
+        return serviceToken()
+                .flatMap(token -> {
+                    log.debug("Calling ControllerApp to look up {} scans", scanIds.size());
+                    return guarded("lookup", webClient.post()
+                            .uri("/api/scans/lookup")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                            .bodyValue(Map.of("scanIds", scanIds))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, ControllerClient::toStatusException)
+                            .toEntity(SCAN_LIST));
+                });
+    }
+
+    /**
+     * The held service token is used directly; only when a token must be fetched
+     * synchronously does the call move to boundedElastic, because that fetch blocks.
+     */
+    private Mono<String> serviceToken() {
+        String token = serviceTokenProvider.getCachedServiceToken();
+        if (token != null) {
+            return Mono.just(token);
+        }
+        return Mono.fromCallable(serviceTokenProvider::getServiceToken)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Runs the exchange only if the breaker and the limiter admit it, reports its outcome
+     * and latency back to both and records it in the request timer.
+     */
+    private <T> Mono<T> guarded(String operation, Mono<ResponseEntity<T>> exchange) {
+        return Mono.defer(() -> {
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                record(operation, "REJECTED", NO_STATUS, 0);
+                return Mono.error(ControllerAppUnavailableException.circuitOpen(
+                        circuitBreaker.getRemainingOpenDuration()));
+            }
+            if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onIgnore();
+                }
+                record(operation, "REJECTED", NO_STATUS, 0);
+                return Mono.error(ControllerAppUnavailableException.concurrencyLimited());
+            }
+            Permit permit = new Permit(operation);
+            return exchange
+                    .doOnSuccess(entity -> permit.release(null, entity != null ? entity.getStatusCode() : null))
+                    .doOnError(error -> permit.release(error, null))
+                    .doOnCancel(permit::cancel)
+                    .mapNotNull(ResponseEntity::getBody);
+        });
+    }
+
+    private void record(String operation, String outcome, String status, long nanos) {
+        requestTimers.computeIfAbsent(new TimerKey(operation, outcome, status), this::requestTimer)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer requestTimer(TimerKey key) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Calls to ControllerApp, including ones rejected before being sent")
+                .tags("operation", key.operation(), "outcome", key.outcome(), "status", key.status())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(String operation, String outcome, String status) {
+    }
+
+    /**
+     * One admitted exchange; releases its breaker permission and limiter slot exactly once.
+     */
+    private final class Permit {
+
+        private final String operation;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(String operation) {
+            this.operation = operation;
+        }
+
+        void release(Throwable error, HttpStatusCode status) {
+            if (error instanceof DeadlineExceededException) {
+                release("DEADLINE_EXCEEDED", NO_STATUS);
+                return;
+            }
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            if (error instanceof ResponseStatusException statusException) {
+                status = statusException.getStatusCode();
+            }
+            record(operation, outcomeOf(error, status), status != null ? Integer.toString(status.value()) : NO_STATUS,
+                    elapsed);
+            if (error == null || !isUpstreamFailure(error)) {
+                if (concurrencyLimiter != null) {
+                    concurrencyLimiter.onSuccess(elapsed);
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.onSuccess();
+                }
+            } else {
+                if (concurrencyLimiter != null) {
+                    concurrencyLimiter.onDropped();
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.onFailure();
+                }
+            }
+        }
+
+        void cancel() {
+            release("CANCELLED", NO_STATUS);
+        }
+
+        /** Gives the slot back without a sample: the call said nothing about ControllerApp. */
+        private void release(String outcome, String status) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            record(operation, outcome, status, System.nanoTime() - startNanos);
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.onIgnore();
+            }
+            if (circuitBreaker != null) {
+                circuitBreaker.onIgnore();
+            }
+        }
+    }
+
+    private static String outcomeOf(Throwable error, HttpStatusCode status) {
+        if (status == null) {
+            return error == null ? "SUCCESS" : "TRANSPORT_ERROR";
+        }
+        if (status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return "SUCCESS";
+        }
+        return status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    /**
+     * 4xx means ControllerApp answered as designed; anything else (5xx, timeout, connection
+     * failure) means it is struggling.
+     */
+    private static boolean isUpstreamFailure(Throwable error) {
+        return !(error instanceof ResponseStatusException statusException
+                && statusException.getStatusCode().is4xxClientError());
+    }
+
+    /** Null when controller-app.hedge.enabled=false. */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /** Null when controller-app.limiter.enabled=false. */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /** Null when controller-app.circuit-breaker.enabled=false. */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private static Mono<? extends Throwable> toStatusException(ClientResponse clientResponse) {
+        return clientResponse.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> new ResponseStatusException(
+                        clientResponse.statusCode(),
+                        "ControllerApp error: " + body
+                ));
     }
 }
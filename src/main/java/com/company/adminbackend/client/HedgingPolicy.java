@@ -0,0 +1,158 @@
+package com.company.adminbackend.client;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, hedged request for an idempotent call when the first is slower than
+ * usual, and takes whichever answers first.
+ *
+ * Design decisions:
+ * - The hedge delay is the configured percentile of recent call latencies (last 1024
+ *   samples), clamped to [min-delay, max-delay]. Until enough samples exist max-delay is
+ *   used. The percentile is recomputed every 64 samples, not per call.
+ * - Hedges draw from a global token bucket: every call deposits budget-ratio tokens (capped
+ *   at budget-burst) and a hedge spends one. Hedges therefore stay below budget-ratio of
+ *   traffic, and during an outage, when every call is slow, the bucket drains and load is
+ *   not multiplied.
+ * - The first signal wins and the other request is cancelled, which releases its
+ *   connection and its limiter slot. Errors from the hedge are dropped so that a
+ *   fast-failing hedge (e.g. rejected by the concurrency limiter) never overrides a primary
+ *   that is still in flight; the primary's outcome is what the caller sees.
+ * - Only for idempotent reads; ControllerClient never applies it to force-close.
+ */
+public class HedgingPolicy {
+
+    private static final int SAMPLE_CAPACITY = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final int MIN_SAMPLES = 100;
+    private static final long TOKEN_SCALE = 1000;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long depositPerCall;
+    private final long maxBalance;
+
+    private final ReentrantLock samplesLock = new ReentrantLock();
+    private final long[] samples = new long[SAMPLE_CAPACITY];
+    private int sampleIndex;
+    private int sampleCount;
+    private int samplesSinceRecompute;
+    private volatile long delayNanos;
+
+    private final AtomicLong balance;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    public HedgingPolicy(double percentile, Duration minDelay, Duration maxDelay,
+                         double budgetRatio, int budgetBurst) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.depositPerCall = Math.round(budgetRatio * TOKEN_SCALE);
+        this.maxBalance = budgetBurst * TOKEN_SCALE;
+        this.delayNanos = maxDelayNanos;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Runs primary; if it has not signalled after the hedge delay and the budget allows,
+     * subscribes to hedge as well and returns the first to answer.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> primary, Supplier<Mono<T>> hedge) {
+        return Mono.defer(() -> {
+            calls.increment();
+            deposit();
+            Mono<T> first = timed(primary.get());
+            Mono<T> second = Mono.delay(Duration.ofNanos(delayNanos))
+                    .then(Mono.defer(() -> {
+                        if (!tryWithdraw()) {
+                            budgetExhausted.increment();
+                            return Mono.<T>never();
+                        }
+                        hedgesSent.increment();
+                        return timed(hedge.get())
+                                .doOnSuccess(value -> hedgeWins.increment())
+                                .onErrorResume(e -> Mono.never());
+                    }));
+            return Mono.firstWithSignal(first, second);
+        });
+    }
+
+    private <T> Mono<T> timed(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.doOnSuccess(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    private void record(long latencyNanos) {
+        samplesLock.lock();
+        try {
+            samples[sampleIndex] = latencyNanos;
+            sampleIndex = (sampleIndex + 1) % SAMPLE_CAPACITY;
+            if (sampleCount < SAMPLE_CAPACITY) {
+                sampleCount++;
+            }
+            if (++samplesSinceRecompute >= RECOMPUTE_EVERY && sampleCount >= MIN_SAMPLES) {
+                samplesSinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(sorted);
+                long value = sorted[(int) Math.min(sampleCount - 1, Math.floor(percentile * sampleCount))];
+                delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+            }
+        } finally {
+            samplesLock.unlock();
+        }
+    }
+
+    private void deposit() {
+        balance.updateAndGet(current -> Math.min(maxBalance, current + depositPerCall));
+    }
+
+    private boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public long getCurrentDelayMillis() {
+        return Duration.ofNanos(delayNanos).toMillis();
+    }
+
+    public double getBudgetTokens() {
+        return (double) balance.get() / TOKEN_SCALE;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    public long getBudgetExhausted() {
+        return budgetExhausted.sum();
+    }
+}
@@ -0,0 +1,163 @@
+package com.company.adminbackend.client;
+
+import com.company.adminbackend.model.ScanResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent getScan lookups into bulk requests to ControllerApp.
+ *
+ * Design decisions:
+ * - The first lookup in an empty window schedules a flush after controller-app.batch.window;
+ *   reaching controller-app.batch.max-size flushes immediately. Callers asking for the
+ *   same scanId inside one window share a single slot and a single answer.
+ * - Each waiting caller gets its own Mono backed by a Sinks.One, so one caller cancelling
+ *   does not affect the others in the batch.
+ * - A scanId missing from the bulk response is reported to its caller as 404, matching
+ *   what the per-item endpoint would have returned. A bulk call that completes without a
+ *   body (e.g. 204) is an empty answer, so every caller in the batch gets its 404 too.
+ * - If ControllerApp answers the bulk endpoint with 404/405/501 it is treated as "bulk
+ *   lookup not available": the batch is retried item by item and batching is bypassed
+ *   for controller-app.batch.unsupported-backoff before probing the bulk endpoint again.
+ * - HTTP stays in ControllerClient; this class only receives the two lookup functions.
+ */
+final class ScanLookupBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ScanLookupBatcher.class);
+
+    private final Function<List<String>, Mono<List<ScanResponse>>> bulkLookup;
+    private final Function<String, Mono<ScanResponse>> singleLookup;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long unsupportedBackoffNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Sinks.One<ScanResponse>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private volatile long bulkUnsupportedUntil;
+
+    ScanLookupBatcher(Function<List<String>, Mono<List<ScanResponse>>> bulkLookup,
+                      Function<String, Mono<ScanResponse>> singleLookup,
+                      Duration window,
+                      int maxBatchSize,
+                      Duration unsupportedBackoff) {
+        this.bulkLookup = bulkLookup;
+        this.singleLookup = singleLookup;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.unsupportedBackoffNanos = unsupportedBackoff.toNanos();
+    }
+
+    Mono<ScanResponse> lookup(String scanId) {
+        if (bulkUnsupportedUntil != 0 && System.nanoTime() - bulkUnsupportedUntil < 0) {
+            return singleLookup.apply(scanId);
+        }
+        Sinks.One<ScanResponse> sink;
+        Map<String, Sinks.One<ScanResponse>> fullBatch = null;
+        lock.lock();
+        try {
+            sink = pending.computeIfAbsent(scanId, id -> Sinks.one());
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                Schedulers.parallel().schedule(this::flushScheduled, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return sink.asMono();
+    }
+
+    private void flushScheduled() {
+        Map<String, Sinks.One<ScanResponse>> batch;
+        lock.lock();
+        try {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private Map<String, Sinks.One<ScanResponse>> takePending() {
+        Map<String, Sinks.One<ScanResponse>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, Sinks.One<ScanResponse>> batch) {
+        if (batch.size() == 1) {
+            dispatchIndividually(batch);
+            return;
+        }
+        log.debug("Looking up {} scans in one bulk request", batch.size());
+        bulkLookup.apply(new ArrayList<>(batch.keySet())).defaultIfEmpty(List.of()).subscribe(
+                responses -> complete(batch, responses),
+                error -> {
+                    if (isBulkUnsupported(error)) {
+                        bulkUnsupportedUntil = System.nanoTime() + unsupportedBackoffNanos;
+                        log.warn("ControllerApp bulk scan lookup unavailable ({}); falling back to per-scan calls",
+                                error.getMessage());
+                        dispatchIndividually(batch);
+                    } else {
+                        batch.values().forEach(sink -> sink.tryEmitError(error));
+                    }
+                });
+    }
+
+    private void complete(Map<String, Sinks.One<ScanResponse>> batch, List<ScanResponse> responses) {
+        Map<String, ScanResponse> byId = new HashMap<>(responses.size() * 2);
+        for (ScanResponse response : responses) {
+            byId.put(response.getScanId(), response);
+        }
+        batch.forEach((scanId, sink) -> {
+            ScanResponse response = byId.get(scanId);
+            if (response != null) {
+                sink.tryEmitValue(response);
+            } else {
+                sink.tryEmitError(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "ControllerApp error: scan " + scanId + " not found"));
+            }
+        });
+    }
+
+    private void dispatchIndividually(Map<String, Sinks.One<ScanResponse>> batch) {
+        batch.forEach((scanId, sink) -> singleLookup.apply(scanId).subscribe(
+                sink::tryEmitValue,
+                sink::tryEmitError,
+                sink::tryEmitEmpty));
+    }
+
+    private static boolean isBulkUnsupported(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            int status = statusException.getStatusCode().value();
+            return status == HttpStatus.NOT_FOUND.value()
+                    || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+                    || status == HttpStatus.NOT_IMPLEMENTED.value();
+        }
+        return false;
+    }
+}
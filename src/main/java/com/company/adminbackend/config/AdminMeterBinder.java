@@ -0,0 +1,228 @@
+package com.company.adminbackend.config;
+
+import com.company.adminbackend.audit.AsyncAuditDispatcher;
+import com.company.adminbackend.audit.AuditService;
+import com.company.adminbackend.audit.wal.AuditWalSink;
+import com.company.adminbackend.client.AdaptiveConcurrencyLimiter;
+import com.company.adminbackend.client.CircuitBreaker;
+import com.company.adminbackend.client.ControllerAppPoolMetrics;
+import com.company.adminbackend.client.ControllerClient;
+import com.company.adminbackend.client.HedgingPolicy;
+import com.company.adminbackend.job.ForceCloseJobService;
+import com.company.adminbackend.job.JobStore;
+import com.company.adminbackend.security.CachingJwtDecoder;
+import com.company.adminbackend.security.ManagedJwkSource;
+import com.company.adminbackend.security.ServiceTokenProvider;
+import com.company.adminbackend.service.ScanCache;
+import com.company.adminbackend.service.ScanWatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters and gauges that components already keep as plain getters.
+ *
+ * Design decisions:
+ * - Components count with LongAdder and expose getters; this binder is the only class
+ *   that maps them to Micrometer, using function counters and gauges that read the
+ *   getters at scrape time, so nothing is added to the request path.
+ * - Latency histograms (controller.app.requests, controller.app.token.acquire,
+ *   security.jwt.decode, http.server.requests) are recorded where the work happens, not
+ *   here, because they need every sample.
+ * - Optional components (scan cache, JWT cache, async audit, WAL, hedging, limiter,
+ *   breaker) are bound only when they are enabled.
+ * - Tags are fixed enumerations (result, state); no scanId or user appears in a
+ *   meter name or tag.
+ */
+@Component
+public class AdminMeterBinder implements MeterBinder {
+
+    private final ControllerAppPoolMetrics poolMetrics;
+    private final ControllerClient controllerClient;
+    private final ServiceTokenProvider serviceTokenProvider;
+    private final ManagedJwkSource jwkSource;
+    private final AuditService auditService;
+    private final ScanWatcher scanWatcher;
+    private final ForceCloseJobService forceCloseJobs;
+    private final JobStore jobStore;
+    private final ObjectProvider<ScanCache> scanCache;
+    private final ObjectProvider<JwtDecoder> jwtDecoder;
+    private final ObjectProvider<AsyncAuditDispatcher> auditDispatcher;
+    private final ObjectProvider<AuditWalSink> auditWal;
+
+    public AdminMeterBinder(ControllerAppPoolMetrics poolMetrics,
+                            ControllerClient controllerClient,
+                            ServiceTokenProvider serviceTokenProvider,
+                            ManagedJwkSource jwkSource,
+                            AuditService auditService,
+                            ScanWatcher scanWatcher,
+                            ForceCloseJobService forceCloseJobs,
+                            JobStore jobStore,
+                            ObjectProvider<ScanCache> scanCache,
+                            ObjectProvider<JwtDecoder> jwtDecoder,
+                            ObjectProvider<AsyncAuditDispatcher> auditDispatcher,
+                            ObjectProvider<AuditWalSink> auditWal) {
+        this.poolMetrics = poolMetrics;
+        this.controllerClient = controllerClient;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.jwkSource = jwkSource;
+        this.auditService = auditService;
+        this.scanWatcher = scanWatcher;
+        this.forceCloseJobs = forceCloseJobs;
+        this.jobStore = jobStore;
+        this.scanCache = scanCache;
+        this.jwtDecoder = jwtDecoder;
+        this.auditDispatcher = auditDispatcher;
+        this.auditWal = auditWal;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindConnectionPool(registry);
+        bindProtection(registry);
+        bindServiceToken(registry);
+        bindInboundJwt(registry);
+        bindScanCache(registry);
+        bindScanWatch(registry);
+        bindJobs(registry);
+        bindAudit(registry);
+    }
+
+    private void bindConnectionPool(MeterRegistry registry) {
+        gauge(registry, "controller.app.pool.connections", poolMetrics, ControllerAppPoolMetrics::getActiveConnections,
+                "state", "active");
+        gauge(registry, "controller.app.pool.connections", poolMetrics, ControllerAppPoolMetrics::getIdleConnections,
+                "state", "idle");
+        gauge(registry, "controller.app.pool.connections.max", poolMetrics, ControllerAppPoolMetrics::getMaxConnections);
+        gauge(registry, "controller.app.pool.pending", poolMetrics, ControllerAppPoolMetrics::getPendingAcquires);
+        FunctionTimer.builder("controller.app.pool.acquire", poolMetrics,
+                        ControllerAppPoolMetrics::getAcquireCount,
+                        ControllerAppPoolMetrics::getAcquireTotalNanos, TimeUnit.NANOSECONDS)
+                .description("Time to obtain a pooled connection to ControllerApp")
+                .register(registry);
+    }
+
+    private void bindProtection(MeterRegistry registry) {
+        AdaptiveConcurrencyLimiter limiter = controllerClient.getConcurrencyLimiter();
+        if (limiter != null) {
+            gauge(registry, "controller.app.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit);
+            gauge(registry, "controller.app.limiter.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight);
+            counter(registry, "controller.app.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected);
+        }
+        CircuitBreaker breaker = controllerClient.getCircuitBreaker();
+        if (breaker != null) {
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                gauge(registry, "controller.app.breaker.state", breaker, b -> b.getState() == state ? 1 : 0,
+                        "state", state.name());
+            }
+            gauge(registry, "controller.app.breaker.failure.rate", breaker, CircuitBreaker::getFailureRate);
+            counter(registry, "controller.app.breaker.rejected", breaker, CircuitBreaker::getRejected);
+            counter(registry, "controller.app.breaker.openings", breaker, CircuitBreaker::getOpenings);
+        }
+        HedgingPolicy hedging = controllerClient.getHedgingPolicy();
+        if (hedging != null) {
+            TimeGauge.builder("controller.app.hedge.delay", hedging, TimeUnit.MILLISECONDS,
+                    HedgingPolicy::getCurrentDelayMillis).register(registry);
+            gauge(registry, "controller.app.hedge.budget", hedging, HedgingPolicy::getBudgetTokens);
+            counter(registry, "controller.app.hedge.requests", hedging, HedgingPolicy::getHedgesSent,
+                    "result", "sent");
+            counter(registry, "controller.app.hedge.requests", hedging, HedgingPolicy::getHedgeWins,
+                    "result", "won");
+            counter(registry, "controller.app.hedge.requests", hedging, HedgingPolicy::getBudgetExhausted,
+                    "result", "over_budget");
+        }
+    }
+
+    private void bindServiceToken(MeterRegistry registry) {
+        TimeGauge.builder("controller.app.token.remaining", serviceTokenProvider, TimeUnit.MILLISECONDS,
+                ServiceTokenProvider::getTokenRemainingMillis).register(registry);
+        counter(registry, "controller.app.token.refresh.failures", serviceTokenProvider,
+                ServiceTokenProvider::getRefreshFailures);
+    }
+
+    private void bindInboundJwt(MeterRegistry registry) {
+        if (jwtDecoder.getIfAvailable() instanceof CachingJwtDecoder cache) {
+            gauge(registry, "security.jwt.cache.size", cache, CachingJwtDecoder::getSize);
+            counter(registry, "security.jwt.cache.requests", cache, CachingJwtDecoder::getHits, "result", "hit");
+            counter(registry, "security.jwt.cache.requests", cache, CachingJwtDecoder::getMisses, "result", "miss");
+            counter(registry, "security.jwt.cache.evictions", cache, CachingJwtDecoder::getEvictions);
+        }
+        gauge(registry, "security.jwks.keys", jwkSource, ManagedJwkSource::getKeyCount);
+        counter(registry, "security.jwks.refreshes", jwkSource, ManagedJwkSource::getRefreshCount,
+                "result", "success");
+        counter(registry, "security.jwks.refreshes", jwkSource, ManagedJwkSource::getRefreshFailures,
+                "result", "failure");
+        counter(registry, "security.jwks.unknown.kid.refetches", jwkSource, ManagedJwkSource::getUnknownKidRefetches);
+    }
+
+    private void bindScanCache(MeterRegistry registry) {
+        ScanCache cache = scanCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        gauge(registry, "admin.scan.cache.size", cache, ScanCache::getSize);
+        counter(registry, "admin.scan.cache.requests", cache, ScanCache::getHits, "result", "hit");
+        counter(registry, "admin.scan.cache.requests", cache, ScanCache::getMisses, "result", "miss");
+        counter(registry, "admin.scan.cache.evictions", cache, ScanCache::getEvictions);
+        counter(registry, "admin.scan.cache.expirations", cache, ScanCache::getExpirations);
+        counter(registry, "admin.scan.cache.not.modified", cache, ScanCache::getNotModified);
+    }
+
+    private void bindScanWatch(MeterRegistry registry) {
+        gauge(registry, "admin.scan.watch.pollers", scanWatcher, ScanWatcher::getPollers);
+        gauge(registry, "admin.scan.watch.watchers", scanWatcher, ScanWatcher::getWatchers);
+        counter(registry, "admin.scan.watch.polls", scanWatcher, ScanWatcher::getPolls);
+    }
+
+    private void bindJobs(MeterRegistry registry) {
+        gauge(registry, "admin.jobs.active", forceCloseJobs, ForceCloseJobService::getRunning, "state", "running");
+        gauge(registry, "admin.jobs.active", forceCloseJobs, ForceCloseJobService::getQueued, "state", "queued");
+        counter(registry, "admin.jobs.completed", forceCloseJobs, ForceCloseJobService::getSucceeded,
+                "result", "succeeded");
+        counter(registry, "admin.jobs.completed", forceCloseJobs, ForceCloseJobService::getFailed,
+                "result", "failed");
+        counter(registry, "admin.jobs.rejected", forceCloseJobs, ForceCloseJobService::getRejected);
+        gauge(registry, "admin.jobs.stored", jobStore, JobStore::getSize);
+        counter(registry, "admin.jobs.evictions", jobStore, JobStore::getEvictions);
+        counter(registry, "admin.jobs.expirations", jobStore, JobStore::getExpirations);
+    }
+
+    private void bindAudit(MeterRegistry registry) {
+        AsyncAuditDispatcher dispatcher = auditDispatcher.getIfAvailable();
+        if (dispatcher != null) {
+            counter(registry, "audit.events", dispatcher, AsyncAuditDispatcher::getWrittenEvents, "result", "written");
+            counter(registry, "audit.events", dispatcher, AsyncAuditDispatcher::getSpilledEvents, "result", "spilled");
+            counter(registry, "audit.events", dispatcher, AsyncAuditDispatcher::getRejectedEvents, "result", "rejected");
+            counter(registry, "audit.events", dispatcher, AsyncAuditDispatcher::getFailedEvents, "result", "failed");
+            gauge(registry, "audit.buffer.events", dispatcher, AsyncAuditDispatcher::getBufferedEvents);
+            gauge(registry, "audit.buffer.capacity", dispatcher, AsyncAuditDispatcher::getCapacity);
+        } else {
+            counter(registry, "audit.events", auditService, AuditService::getWrittenEvents, "result", "written");
+            counter(registry, "audit.events", auditService, AuditService::getFailedEvents, "result", "failed");
+        }
+        AuditWalSink wal = auditWal.getIfAvailable();
+        if (wal != null) {
+            counter(registry, "audit.wal.records", wal, AuditWalSink::getRecordsWritten);
+            counter(registry, "audit.wal.fsyncs", wal, AuditWalSink::getFsyncs);
+        }
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                                  String... tags) {
+        Gauge.builder(name, source, value).tags(tags).register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> value,
+                                    String... tags) {
+        FunctionCounter.builder(name, source, value).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,465 @@
+package com.company.adminbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Typed configuration for the ControllerApp client (prefix "controller-app").
+ *
+ * Design decisions:
+ * - One place for everything that shapes outbound traffic to ControllerApp: connection
+ *   pool, timeouts, TCP keep-alive, protocol, getScan batching and hedging, service-token
+ *   refresh and the overload protection (concurrency limiter, circuit breaker).
+ * - Defaults are deliberately bounded (pending-acquire queue and timeout, response
+ *   timeout) so a slow ControllerApp produces fast errors instead of unbounded waits.
+ * - protocol accepts a list: [HTTP11, H2] negotiates HTTP/2 over TLS via ALPN and falls
+ *   back to HTTP/1.1; [H2C] uses cleartext HTTP/2 with prior knowledge. With HTTP/2,
+ *   pool.max-connections bounds connections and each carries many concurrent streams.
+ */
+@ConfigurationProperties(prefix = "controller-app")
+public class ControllerAppProperties {
+
+    private String baseUrl;
+    private List<HttpProtocol> protocol = List.of(HttpProtocol.HTTP11);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    private final Pool pool = new Pool();
+    private final KeepAlive keepAlive = new KeepAlive();
+    private final Batch batch = new Batch();
+    private final Hedge hedge = new Hedge();
+    private final Token token = new Token();
+    private final Limiter limiter = new Limiter();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public List<HttpProtocol> getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(List<HttpProtocol> protocol) {
+        this.protocol = protocol;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public KeepAlive getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public Token getToken() {
+        return token;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public static class Pool {
+
+        private int maxConnections = 100;
+        /** Callers allowed to wait for a connection; beyond this, acquisition fails immediately. */
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+        /** Background sweep for idle/expired connections; zero checks only on acquire. */
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictInBackground() {
+            return evictInBackground;
+        }
+
+        public void setEvictInBackground(Duration evictInBackground) {
+            this.evictInBackground = evictInBackground;
+        }
+    }
+
+    public static class KeepAlive {
+
+        /** HTTP persistent connections plus TCP SO_KEEPALIVE probes. */
+        private boolean enabled = true;
+        private Duration idle = Duration.ofSeconds(60);
+        private Duration interval = Duration.ofSeconds(10);
+        private int count = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getIdle() {
+            return idle;
+        }
+
+        public void setIdle(Duration idle) {
+            this.idle = idle;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class Batch {
+
+        /** Coalesce concurrent getScan calls into POST /api/scans/lookup requests. */
+        private boolean enabled = false;
+        private Duration window = Duration.ofMillis(5);
+        private int maxSize = 50;
+        /** How long to stay on per-scan calls after ControllerApp rejects the bulk endpoint. */
+        private Duration unsupportedBackoff = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getUnsupportedBackoff() {
+            return unsupportedBackoff;
+        }
+
+        public void setUnsupportedBackoff(Duration unsupportedBackoff) {
+            this.unsupportedBackoff = unsupportedBackoff;
+        }
+    }
+
+    public static class Hedge {
+
+        /** Send a second getScan request when the first is slower than usual. */
+        private boolean enabled = false;
+        /** Hedge after this percentile of recent getScan latencies. */
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        /** Upper bound for the delay, also used until enough latencies are sampled. */
+        private Duration maxDelay = Duration.ofMillis(500);
+        /** Hedges allowed per getScan call, on average. */
+        private double budgetRatio = 0.1;
+        /** Hedges that may be sent back to back once the budget has built up. */
+        private int budgetBurst = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetBurst() {
+            return budgetBurst;
+        }
+
+        public void setBudgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+        }
+    }
+
+    public static class Token {
+
+        /** Refresh once this fraction of the token lifetime has elapsed. */
+        private double refreshFraction = 0.75;
+        /** A token this close to expiry is no longer handed out. */
+        private Duration expirySkew = Duration.ofSeconds(30);
+        private Duration retryInitialBackoff = Duration.ofSeconds(1);
+        private Duration retryMaxBackoff = Duration.ofSeconds(30);
+
+        public double getRefreshFraction() {
+            return refreshFraction;
+        }
+
+        public void setRefreshFraction(double refreshFraction) {
+            this.refreshFraction = refreshFraction;
+        }
+
+        public Duration getExpirySkew() {
+            return expirySkew;
+        }
+
+        public void setExpirySkew(Duration expirySkew) {
+            this.expirySkew = expirySkew;
+        }
+
+        public Duration getRetryInitialBackoff() {
+            return retryInitialBackoff;
+        }
+
+        public void setRetryInitialBackoff(Duration retryInitialBackoff) {
+            this.retryInitialBackoff = retryInitialBackoff;
+        }
+
+        public Duration getRetryMaxBackoff() {
+            return retryMaxBackoff;
+        }
+
+        public void setRetryMaxBackoff(Duration retryMaxBackoff) {
+            this.retryMaxBackoff = retryMaxBackoff;
+        }
+    }
+
+    public static class Limiter {
+
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        /** Latency may rise to this multiple of the baseline before the limit shrinks. */
+        private double rttTolerance = 1.5;
+        /** Factor applied to the limit when a call times out or fails with 5xx. */
+        private double backoffRatio = 0.9;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getRttTolerance() {
+            return rttTolerance;
+        }
+
+        public void setRttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+    }
+
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+        /** Number of most recent calls the failure rate is computed over. */
+        private int windowSize = 50;
+        /** Calls needed in the window before the breaker may open. */
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        /** Trial calls let through while half-open; all must succeed to close again. */
+        private int halfOpenProbes = 3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+}
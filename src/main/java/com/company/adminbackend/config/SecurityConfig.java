@@ -1,6 +1,15 @@
 package com.company.adminbackend.config;
 
-import com.company.adminbackend.security.JwtRoleConverter;
+import com.company.adminbackend.security.CachingJwtDecoder;
+import com.company.adminbackend.security.ManagedJwkSource;
+import com.company.adminbackend.security.TimedJwtDecoder;
+import com.company.adminbackend.security.UserContextAuthenticationConverter;
+import com.company.adminbackend.security.UserContextService;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,11 +25,15 @@ import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtDecoders;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+
+import java.time.Duration;
 
 /**
  * Central security configuration for AdminAppBackend.
@@ -32,6 +45,15 @@ import org.springframework.security.web.SecurityFilterChain;
  *   enforced via @PreAuthorize at the method level (enabled by @EnableMethodSecurity).
  * - Audience validation: Entra ID tokens must include "adminapp-backend" in the "aud"
  *   claim. This prevents tokens meant for other APIs from being accepted here.
+ * - Signing keys come from ManagedJwkSource (snapshot-backed, refreshed in the background)
+ *   instead of JwtDecoders.fromIssuerLocation, so startup does no network I/O and key
+ *   rotation is picked up off the request path.
+ * - With security.jwt-cache.enabled (off by default), the decoder is wrapped in
+ *   CachingJwtDecoder so a token that is sent on many consecutive requests is verified
+ *   only once.
+ * - /actuator/prometheus is the only actuator endpoint besides health/info that is
+ *   reachable, and only with the METRICS role, so a scraper gets a dedicated app role
+ *   rather than ADMIN.
  * - OAuth2AuthorizedClientManager bean: wired for the client-credentials flow used by
  *   ServiceTokenProvider. AuthorizedClientServiceOAuth2AuthorizedClientManager is the
  *   correct choice for non-reactive (servlet) applications.
@@ -47,24 +69,48 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.audiences}")
     private String expectedAudience;
 
+    @Value("${security.jwt-cache.enabled:false}")
+    private boolean jwtCacheEnabled;
+
+    @Value("${security.jwt-cache.max-size:10000}")
+    private int jwtCacheMaxSize;
+
+    @Value("${security.jwt-cache.expiry-skew:5s}")
+    private Duration jwtCacheExpirySkew;
+
     // --- Security filter chain ---
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder,
+                                                   UserContextAuthenticationConverter jwtAuthenticationConverter)
+            throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // Responses are not cacheable (no-store), except GET /admin/scan/{scanId}, which
+            // sets private, no-cache itself so clients can revalidate it with its ETag.
+            .headers(headers -> headers
+                .cacheControl(cache -> cache.disable())
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                    new NegatedRequestMatcher(new AntPathRequestMatcher("/admin/scan/*", "GET")),
+                    new CacheControlHeadersWriter())))
             .authorizeHttpRequests(auth -> auth
                 // Health/readiness probes are public so load-balancers can check without a token.
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                // The metrics scrape needs a token carrying the METRICS role; no other
+                // actuator endpoint is reachable (anyRequest().denyAll() below).
+                .requestMatchers("/actuator/prometheus").hasRole("METRICS")
+                // Error dispatches render the status a handler already chose (e.g. 503 from
+                // ControllerApp); without this, denyAll() below turns every error into 403.
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 // All admin endpoints require an authenticated (valid JWT) user.
                 .requestMatchers("/admin/**").authenticated()
                 .anyRequest().denyAll()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
-                    .decoder(jwtDecoder())
-                    .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                    .decoder(jwtDecoder)
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter)
                 )
             );
         return http.build();
@@ -73,8 +119,12 @@ public class SecurityConfig {
     // --- JWT decoder with audience validation ---
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        NimbusJwtDecoder decoder = JwtDecoders.fromIssuerLocation(issuerUri);
+    public JwtDecoder jwtDecoder(ManagedJwkSource jwkSource, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(jwkSource.getAlgorithms(), jwkSource));
+        // Claims are checked by the Spring validators below, not by Nimbus.
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
 
         // Combine the default issuer/timestamp validators with a custom audience check.
         OAuth2TokenValidator<Jwt> defaultValidators = JwtValidators.createDefaultWithIssuer(issuerUri);
@@ -82,16 +132,17 @@ public class SecurityConfig {
         OAuth2TokenValidator<Jwt> combined = new DelegatingOAuth2TokenValidator<>(defaultValidators, audienceValidator);
 
         decoder.setJwtValidator(combined);
-        return decoder;
+        JwtDecoder timed = new TimedJwtDecoder(decoder, meterRegistry);
+        return jwtCacheEnabled ? new CachingJwtDecoder(timed, jwtCacheMaxSize, jwtCacheExpirySkew) : timed;
     }
 
     // --- JWT → Spring Security authorities mapping ---
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(new JwtRoleConverter());
-        return converter;
+    public UserContextAuthenticationConverter jwtAuthenticationConverter(UserContextService userContextService) {
+        // Authorities come from JwtRoleConverter's interned RoleSet; the UserContext is
+        // resolved here once per request and carried on the authentication token.
+        return new UserContextAuthenticationConverter(userContextService);
     }
 
     // --- OAuth2 client manager for client-credentials flow ---
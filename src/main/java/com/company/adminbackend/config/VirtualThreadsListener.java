@@ -0,0 +1,38 @@
+package com.company.adminbackend.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Extends spring.threads.virtual.enabled to Reactor's boundedElastic scheduler.
+ *
+ * Design decisions:
+ * - Spring Boot moves Tomcat request handling (and @Async/scheduling executors) onto
+ *   virtual threads when spring.threads.virtual.enabled=true on Java 21+. Our remaining
+ *   blocking work — audit sink writes and service-token refreshes — runs on
+ *   boundedElastic, which Reactor only backs with virtual threads when the
+ *   reactor.schedulers.defaultBoundedElasticOnVirtualThreads system property is set.
+ * - Reactor reads that property once, when Schedulers is first initialized, so it is set
+ *   from ApplicationEnvironmentPreparedEvent: the property sources are loaded but no bean
+ *   has touched Reactor yet. The listener is registered in main() for the same reason.
+ * - An explicit -D value always wins, and nothing changes on Java 17, where Spring Boot
+ *   ignores the flag as well.
+ * - Virtual threads are not reused, so per-thread caches turn into per-task allocations.
+ *   The audit serializer pools its writers and CachingJwtDecoder clones its digest instead
+ *   of keeping them in ThreadLocals. ThreadModelComparison (loadtest) measures both modes.
+ */
+public class VirtualThreadsListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    static final String BOUNDED_ELASTIC_ON_VIRTUAL_THREADS = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        boolean enabled = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (enabled && Runtime.version().feature() >= 21
+                && System.getProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS) == null) {
+            System.setProperty(BOUNDED_ELASTIC_ON_VIRTUAL_THREADS, "true");
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package com.company.adminbackend.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.company.adminbackend.audit.CorrelationIdExchangeFilter;
+import com.company.adminbackend.client.ControllerAppPoolMetrics;
+import com.company.adminbackend.deadline.DeadlineExchangeFilter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.nio.NioChannelOption;
+import jdk.net.ExtendedSocketOptions;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Provides a pre-configured WebClient bean targeting the ControllerApp.
@@ -13,17 +26,76 @@ import org.springframework.web.reactive.function.client.WebClient;
  *   its own ControllerApp instance without code changes.
  * - The Bearer token is NOT set here; it is attached per-request by ControllerClient
  *   so that each call uses a fresh (or cached-but-valid) service token.
+ * - The Reactor Netty connection pool, timeouts, TCP keep-alive and protocol come from
+ *   ControllerAppProperties. The pool is a dedicated ConnectionProvider bean so its
+ *   lifecycle follows the context and its state is visible through ControllerAppPoolMetrics.
+ * - TCP keep-alive tuning uses the epoll options when Netty runs on the native transport
+ *   and the JDK extended socket options otherwise.
+ * - DeadlineExchangeFilter shortens the response timeout of each exchange to the request's
+ *   remaining deadline and forwards that budget to ControllerApp;
+ *   CorrelationIdExchangeFilter forwards the request's correlationId.
  */
 @Configuration
+@EnableConfigurationProperties(ControllerAppProperties.class)
 public class WebClientConfig {
 
-    @Value("${controller-app.base-url}")
-    private String controllerAppBaseUrl;
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider controllerAppConnectionProvider(ControllerAppProperties properties,
+                                                              ControllerAppPoolMetrics poolMetrics) {
+        ControllerAppProperties.Pool pool = properties.getPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("controller-app")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .metrics(true, () -> poolMetrics);
+        if (!pool.getEvictInBackground().isZero()) {
+            builder.evictInBackground(pool.getEvictInBackground());
+        }
+        return builder.build();
+    }
 
     @Bean
-    public WebClient controllerAppWebClient(WebClient.Builder builder) {
+    public WebClient controllerAppWebClient(WebClient.Builder builder,
+                                            ControllerAppProperties properties,
+                                            ConnectionProvider controllerAppConnectionProvider,
+                                            ControllerAppPoolMetrics poolMetrics) {
+        ControllerAppProperties.KeepAlive keepAlive = properties.getKeepAlive();
+        HttpClient httpClient = HttpClient.create(controllerAppConnectionProvider)
+                .protocol(properties.getProtocol().toArray(HttpProtocol[]::new))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .keepAlive(keepAlive.isEnabled())
+                .mapConnect(connect -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return connect.doOnSuccess(connection -> poolMetrics.recordAcquire(System.nanoTime() - start));
+                }));
+        if (keepAlive.isEnabled()) {
+            httpClient = withTcpKeepAlive(httpClient, keepAlive);
+        }
+
         return builder
-                .baseUrl(controllerAppBaseUrl)
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new CorrelationIdExchangeFilter())
+                .filter(new DeadlineExchangeFilter(properties.getResponseTimeout()))
                 .build();
     }
+
+    private static HttpClient withTcpKeepAlive(HttpClient httpClient, ControllerAppProperties.KeepAlive keepAlive) {
+        int idle = (int) keepAlive.getIdle().toSeconds();
+        int interval = (int) keepAlive.getInterval().toSeconds();
+        httpClient = httpClient.option(ChannelOption.SO_KEEPALIVE, true);
+        if (Epoll.isAvailable()) {
+            return httpClient
+                    .option(EpollChannelOption.TCP_KEEPIDLE, idle)
+                    .option(EpollChannelOption.TCP_KEEPINTVL, interval)
+                    .option(EpollChannelOption.TCP_KEEPCNT, keepAlive.getCount());
+        }
+        return httpClient
+                .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPIDLE), idle)
+                .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPINTERVAL), interval)
+                .option(NioChannelOption.of(ExtendedSocketOptions.TCP_KEEPCOUNT), keepAlive.getCount());
+    }
 }
@@ -0,0 +1,31 @@
+package com.company.adminbackend.config;
+
+import com.company.adminbackend.security.UserContextArgumentResolver;
+import com.company.adminbackend.security.UserContextService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC customizations.
+ *
+ * Design decisions:
+ * - Registers UserContextArgumentResolver so controllers declare a UserContext parameter
+ *   instead of pulling identity fields out of the JwtAuthenticationToken themselves.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final UserContextService userContextService;
+
+    public WebMvcConfig(UserContextService userContextService) {
+        this.userContextService = userContextService;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new UserContextArgumentResolver(userContextService));
+    }
+}
@@ -1,18 +1,44 @@
 package com.company.adminbackend.controller;
 
+import com.company.adminbackend.audit.ReactorRequestContext;
+import com.company.adminbackend.client.ControllerClient.RawScan;
+import com.company.adminbackend.deadline.DeadlineExceededException;
+import com.company.adminbackend.deadline.RequestDeadline;
+import com.company.adminbackend.job.ForceCloseJobService;
+import com.company.adminbackend.job.Job;
+import com.company.adminbackend.model.BulkForceCloseRequest;
+import com.company.adminbackend.model.BulkForceCloseResult;
+import com.company.adminbackend.model.JobResponse;
 import com.company.adminbackend.model.ScanResponse;
-import com.company.adminbackend.security.UserContextService;
+import com.company.adminbackend.model.StreamError;
+import com.company.adminbackend.security.UserContext;
 import com.company.adminbackend.service.AdminService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * REST controller for admin operations on scans.
@@ -22,47 +48,208 @@ import java.util.List;
  *   (mapped from the JWT "roles" claim by JwtRoleConverter) can access these endpoints.
  *   This is a defense-in-depth layer on top of the URL-level .authenticated() rule
  *   in SecurityConfig.
- * - JwtAuthenticationToken is injected by Spring Security after successful JWT validation.
- *   UserContextService extracts user identity fields from it.
+ * - The caller's identity arrives as a UserContext parameter, resolved once per request
+ *   during JWT authentication (see UserContextArgumentResolver).
  * - Returns ResponseEntity so we have explicit control over status codes.
+ * - Handlers return Mono/Flux, which Spring MVC treats as async results: the servlet
+ *   thread is released while ControllerApp is called. The correlationId and
+ *   SecurityContext are captured on the request thread and written into the Reactor
+ *   Context before the pipeline leaves it.
+ * - Bulk force-close streams NDJSON (one BulkForceCloseResult per line, in completion
+ *   order) so the caller sees progress while slower scans are still being closed.
+ * - GET /admin/scans streams the matching scans as NDJSON as they arrive from ControllerApp.
+ *   Spring MVC writes one element at a time and requests the next only after the write,
+ *   so a slow client slows the ControllerApp stream instead of filling memory. A listing
+ *   that fails after its first record ends with a StreamError line ({"error": ...}) rather
+ *   than just stopping, so a client can tell a cut listing from a complete one.
+ * - GET /admin/scan/{scanId}/watch is a server-sent event stream of the scan's status
+ *   changes ("scan" events). A keep-alive comment every admin.scan-watch.heartbeat lets
+ *   proxies keep the connection open and reveals a disconnected browser, whose
+ *   subscription is then released. The stream ends when the scan reaches a terminal
+ *   status or after admin.scan-watch.max-duration; EventSource reconnects on its own.
+ * - GET /admin/scan/{scanId} carries a strong ETag derived from the scan (ScanETags) and
+ *   Cache-Control: private, no-cache. Spring MVC answers a matching If-None-Match with 304
+ *   and no body, so a client polling an unchanged scan gets no body and the scan is not
+ *   serialized. Tomcat never compresses a response with a strong ETag.
+ * - With admin.passthrough.enabled, force-close and (when the scan cache is off) GET
+ *   /admin/scan/{scanId} send ControllerApp's body bytes with its content type instead of
+ *   decoding the scan and encoding it again; errors map to statuses as before. A scan
+ *   read then relays ControllerApp's ETag and forwards If-None-Match to it.
+ * - POST /admin/scan/{scanId}/force-close/async answers 202 Accepted with a jobId and a
+ *   Location of GET /admin/jobs/{jobId} (JobController), and runs the force-close on
+ *   ForceCloseJobService's worker pool instead of holding the request open.
+ * - Each endpoint has a default deadline (admin.deadline.*) that applies unless the caller
+ *   sends X-Request-Timeout; it travels in the Reactor Context next to the correlationId.
  */
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
+    private static final CacheControl SCAN_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final AdminService adminService;
-    private final UserContextService userContextService;
+    private final ForceCloseJobService forceCloseJobs;
+    private final boolean passthrough;
+    private final Duration forceCloseDeadline;
+    private final Duration getScanDeadline;
+    private final Duration bulkForceCloseDeadline;
+    private final Duration listScansDeadline;
+    private final Duration watchHeartbeat;
+    private final Duration watchMaxDuration;
 
-    public AdminController(AdminService adminService, UserContextService userContextService) {
+    public AdminController(AdminService adminService,
+                           ForceCloseJobService forceCloseJobs,
+                           @Value("${admin.passthrough.enabled:false}") boolean passthrough,
+                           @Value("${admin.deadline.force-close:15s}") Duration forceCloseDeadline,
+                           @Value("${admin.deadline.get-scan:5s}") Duration getScanDeadline,
+                           @Value("${admin.deadline.bulk-force-close:55s}") Duration bulkForceCloseDeadline,
+                           @Value("${admin.deadline.list-scans:55s}") Duration listScansDeadline,
+                           @Value("${admin.scan-watch.heartbeat:15s}") Duration watchHeartbeat,
+                           @Value("${admin.scan-watch.max-duration:30m}") Duration watchMaxDuration) {
         this.adminService = adminService;
-        this.userContextService = userContextService;
+        this.forceCloseJobs = forceCloseJobs;
+        this.passthrough = passthrough;
+        this.forceCloseDeadline = forceCloseDeadline;
+        this.getScanDeadline = getScanDeadline;
+        this.bulkForceCloseDeadline = bulkForceCloseDeadline;
+        this.listScansDeadline = listScansDeadline;
+        this.watchHeartbeat = watchHeartbeat;
+        this.watchMaxDuration = watchMaxDuration;
     }
 
     @PostMapping("/scan/{scanId}/force-close")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ScanResponse> forceCloseScan(
+    public Mono<ResponseEntity<?>> forceCloseScan(
             @PathVariable String scanId,
-            JwtAuthenticationToken authentication) {
+            UserContext user) {
+
+        Mono<ResponseEntity<?>> response = passthrough
+                ? adminService.forceCloseScanRaw(scanId, user.username(), user.userId(), user.roles())
+                        .map(raw -> ResponseEntity.ok().contentType(raw.contentType()).body(raw.body()))
+                : adminService.forceCloseScan(scanId, user.username(), user.userId(), user.roles())
+                        .map(ResponseEntity::ok);
+        return response
+                .contextWrite(ReactorRequestContext.capture())
+                .contextWrite(RequestDeadline.capture(forceCloseDeadline));
+    }
 
-        String username = userContextService.getUsername(authentication);
-        String userId = userContextService.getUserId(authentication);
-        List<String> roles = userContextService.getRoles(authentication);
+    @PostMapping("/scan/{scanId}/force-close/async")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobResponse> forceCloseScanAsync(
+            @PathVariable String scanId,
+            UserContext user) {
 
-        ScanResponse response = adminService.forceCloseScan(scanId, username, userId, roles);
-        return ResponseEntity.ok(response);
+        Job job = forceCloseJobs.submit(scanId, user.username(), user.userId(), user.roles(),
+                ReactorRequestContext.capture());
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/jobs/" + job.getId()))
+                .body(job.toResponse());
     }
 
     @GetMapping("/scan/{scanId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ScanResponse> getScan(
+    public Mono<ResponseEntity<?>> getScan(
+            @PathVariable String scanId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            UserContext user) {
+
+        Mono<ResponseEntity<?>> response = passthrough && !adminService.isScanCacheEnabled()
+                ? adminService.getScanRaw(scanId, ifNoneMatch, user.username(), user.userId(), user.roles())
+                        .map(AdminController::passthroughScan)
+                : adminService.getScan(scanId, user.username(), user.userId(), user.roles())
+                        .map(scan -> ResponseEntity.ok()
+                                .cacheControl(SCAN_CACHE_CONTROL)
+                                .eTag(ScanETags.of(scan))
+                                .body(scan));
+        return response
+                .contextWrite(ReactorRequestContext.capture())
+                .contextWrite(RequestDeadline.capture(getScanDeadline));
+    }
+
+    @GetMapping(value = "/scan/{scanId}/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public Flux<ServerSentEvent<ScanResponse>> watchScan(
             @PathVariable String scanId,
-            JwtAuthenticationToken authentication) {
+            UserContext user) {
+
+        return adminService.watchScan(scanId, user.username(), user.userId(), user.roles())
+                .map(scan -> ServerSentEvent.builder(scan).event("scan").build())
+                .publish(changes -> Flux.merge(changes, Flux.interval(watchHeartbeat)
+                        .map(tick -> ServerSentEvent.<ScanResponse>builder().comment("keep-alive").build())
+                        .takeUntilOther(changes.then())))
+                .take(watchMaxDuration)
+                .contextWrite(ReactorRequestContext.capture());
+    }
 
-        String username = userContextService.getUsername(authentication);
-        String userId = userContextService.getUserId(authentication);
-        List<String> roles = userContextService.getRoles(authentication);
+    /**
+     * ControllerApp's answer to a scan read, relayed as is: its 304, its ETag (or one
+     * computed from the body when it sends none) and its body bytes.
+     */
+    private static ResponseEntity<?> passthroughScan(RawScan raw) {
+        if (raw.notModified()) {
+            ResponseEntity.BodyBuilder notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(SCAN_CACHE_CONTROL);
+            if (raw.etag() != null) {
+                notModified.eTag(raw.etag());
+            }
+            return notModified.build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(SCAN_CACHE_CONTROL)
+                .eTag(raw.etag() != null ? raw.etag() : ScanETags.ofBody(raw.body()))
+                .contentType(raw.contentType())
+                .body(raw.body());
+    }
+
+    @GetMapping(value = "/scans", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Flux<Object>> listScans(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            UserContext user) {
+
+        Flux<ScanResponse> scans =
+                adminService.listScans(status, from, to, user.username(), user.userId(), user.roles())
+                        .contextWrite(ReactorRequestContext.capture())
+                        .contextWrite(RequestDeadline.capture(listScansDeadline));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(endWithErrorLine(scans));
+    }
+
+    /**
+     * A failure before the first record still becomes the error status; once a record has
+     * been written the 200 is committed, so the failure is sent as a final StreamError line.
+     */
+    private static Flux<Object> endWithErrorLine(Flux<?> records) {
+        return Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return records.doOnNext(record -> started.set(true))
+                    .cast(Object.class)
+                    .onErrorResume(error -> started.get() ? Mono.just(streamError(error)) : Mono.error(error));
+        });
+    }
+
+    private static StreamError streamError(Throwable error) {
+        if (error instanceof DeadlineExceededException deadline) {
+            return new StreamError(StreamError.DEADLINE_EXCEEDED, deadline.getStatusCode().value(), deadline.getReason());
+        }
+        if (error instanceof ResponseStatusException statusException) {
+            return new StreamError(StreamError.FAILURE, statusException.getStatusCode().value(),
+                    statusException.getReason());
+        }
+        return new StreamError(StreamError.FAILURE, HttpStatus.BAD_GATEWAY.value(), error.getMessage());
+    }
+
+    @PostMapping(value = "/scans/force-close", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Flux<BulkForceCloseResult>> forceCloseScans(
+            @Valid @RequestBody BulkForceCloseRequest request,
+            UserContext user) {
 
-        ScanResponse response = adminService.getScan(scanId, username, userId, roles);
-        return ResponseEntity.ok(response);
+        Flux<BulkForceCloseResult> results =
+                adminService.forceCloseScans(request.getScanIds(), user.username(), user.userId(), user.roles())
+                        .contextWrite(ReactorRequestContext.capture())
+                        .contextWrite(RequestDeadline.capture(bulkForceCloseDeadline));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results);
     }
 }
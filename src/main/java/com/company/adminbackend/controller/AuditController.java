@@ -0,0 +1,103 @@
+package com.company.adminbackend.controller;
+
+import com.company.adminbackend.audit.store.AuditQuery;
+import com.company.adminbackend.audit.store.AuditStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * REST controller for querying the embedded audit store.
+ *
+ * Design decisions:
+ * - Same @PreAuthorize("hasRole('ADMIN')") rule as AdminController: the audit trail is as
+ *   sensitive as the operations it records.
+ * - The response is streamed: stored event JSON is copied straight from the store into
+ *   {"events":[...],"nextCursor":...} as it is read, so neither the page nor the events
+ *   are materialized as objects. Pass nextCursor back as "cursor" to fetch the next page.
+ * - Parameters (including the cursor) are validated before streaming starts so bad input
+ *   still gets a clean 400 instead of a truncated body.
+ * - 404 when the store is disabled (audit.store.enabled=false).
+ */
+@RestController
+@RequestMapping("/admin")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int FLUSH_EVERY = 100;
+    private static final byte[] EVENTS_START = "{\"events\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectProvider<AuditStore> auditStore;
+
+    public AuditController(ObjectProvider<AuditStore> auditStore) {
+        this.auditStore = auditStore;
+    }
+
+    @GetMapping(value = "/audit", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> queryAudit(
+            @RequestParam(required = false) String resourceId,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String correlationId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        AuditStore store = auditStore.getIfAvailable();
+        if (store == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Audit store is not enabled");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        AuditQuery query;
+        try {
+            query = AuditQuery.builder()
+                    .resourceId(resourceId)
+                    .userId(userId)
+                    .correlationId(correlationId)
+                    .action(action)
+                    .from(from)
+                    .to(to)
+                    .limit(limit)
+                    .cursor(cursor)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        StreamingResponseBody body = out -> {
+            out.write(EVENTS_START);
+            int[] written = {0};
+            String nextCursor = store.query(query, (json, offset, length) -> {
+                if (written[0] > 0) {
+                    out.write(',');
+                }
+                out.write(json, offset, length);
+                if (++written[0] % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            });
+            out.write(NEXT_CURSOR);
+            out.write((nextCursor == null ? "null" : "\"" + nextCursor + "\"").getBytes(StandardCharsets.UTF_8));
+            out.write('}');
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.adminbackend.controller;
+
+import com.company.adminbackend.job.Job;
+import com.company.adminbackend.job.JobStore;
+import com.company.adminbackend.model.JobResponse;
+import com.company.adminbackend.security.UserContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller for polling asynchronous jobs.
+ *
+ * Design decisions:
+ * - Same @PreAuthorize("hasRole('ADMIN')") rule as AdminController.
+ * - A job is visible only to the user who submitted it; another user's job answers 404,
+ *   the same as an unknown or expired one, so job ids cannot be probed.
+ * - The job's own outcome (including a failed force-close) is in the body; the response
+ *   status is 200 whenever the job exists.
+ */
+@RestController
+@RequestMapping("/admin")
+public class JobController {
+
+    private final JobStore jobStore;
+
+    public JobController(JobStore jobStore) {
+        this.jobStore = jobStore;
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobResponse> getJob(
+            @PathVariable String jobId,
+            UserContext user) {
+
+        Job job = jobStore.get(jobId);
+        if (job == null || !job.getOwnerId().equals(user.userId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found: " + jobId);
+        }
+        return ResponseEntity.ok(job.toResponse());
+    }
+}
@@ -0,0 +1,74 @@
+package com.company.adminbackend.controller;
+
+import com.company.adminbackend.model.ScanResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for GET /admin/scan/{scanId}, computed from the ScanResponse fields.
+ *
+ * Design decisions:
+ * - The tag is derived from the content, not from the serialized body, so deciding on a
+ *   304 costs one hash and no JSON encoding. Equal scans get equal tags on every instance
+ *   and across restarts, so a poll may land on any instance.
+ * - SHA-256 over the length-prefixed fields, truncated to 128 bits: a scan that changed
+ *   must never be answered 304. VERSION is part of the hash and changes whenever the JSON
+ *   representation of ScanResponse does.
+ * - The tag is independent of ControllerApp's own ETag, which is only used between this
+ *   service and ControllerApp (see ScanCache). In passthrough mode the body is
+ *   ControllerApp's, so its ETag is relayed; ofBody() covers a ControllerApp that sends none.
+ */
+public final class ScanETags {
+
+    private static final String VERSION = "scan-v1";
+    private static final int TAG_BYTES = 16;
+
+    private ScanETags() {
+    }
+
+    /**
+     * Quoted strong entity tag, e.g. "3f2a…".
+     */
+    public static String of(ScanResponse scan) {
+        MessageDigest digest = sha256();
+        update(digest, VERSION);
+        update(digest, scan.getScanId());
+        update(digest, scan.getStatus());
+        update(digest, scan.getMessage());
+        byte[] hash = digest.digest();
+        return '"' + HexFormat.of().formatHex(hash, 0, TAG_BYTES) + '"';
+    }
+
+    /**
+     * Quoted strong entity tag of a body sent byte for byte as received.
+     */
+    public static String ofBody(byte[] body) {
+        byte[] hash = sha256().digest(body);
+        return '"' + HexFormat.of().formatHex(hash, 0, TAG_BYTES) + '"';
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
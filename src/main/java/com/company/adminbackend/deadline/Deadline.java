@@ -0,0 +1,34 @@
+package com.company.adminbackend.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a request must be answered.
+ *
+ * Design decisions:
+ * - Based on System.nanoTime(), not the wall clock, so clock adjustments cannot stretch or
+ *   shrink a budget. It is never sent anywhere as an absolute time; ControllerApp receives
+ *   the remaining budget instead (see DeadlineExchangeFilter), which avoids clock skew
+ *   between hosts.
+ * - Immutable, so it can be stored in the Reactor Context and read from any thread.
+ */
+public final class Deadline {
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long startNanos, Duration budget) {
+        return new Deadline(startNanos + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.company.adminbackend.deadline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Raised when a request's deadline passes before its work is done.
+ *
+ * Extends ResponseStatusException so the request surfaces as 504 to the AdminApp caller;
+ * AdminService records it with the DEADLINE_EXCEEDED audit status rather than FAILURE.
+ */
+public class DeadlineExceededException extends ResponseStatusException {
+
+    public DeadlineExceededException() {
+        super(HttpStatus.GATEWAY_TIMEOUT, "Request deadline exceeded");
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.adminbackend.deadline;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+
+/**
+ * WebClient filter that applies the request's remaining budget to each ControllerApp call.
+ *
+ * Design decisions:
+ * - The remaining budget becomes the response timeout of this exchange when it is shorter
+ *   than controller-app.response-timeout, and is forwarded as X-Request-Timeout so
+ *   ControllerApp can stop work the caller will not wait for.
+ * - An already expired deadline fails before anything is sent.
+ * - A response timeout that fired because the deadline shortened it is reported as
+ *   DeadlineExceededException, so it is audited as DEADLINE_EXCEEDED and is not held
+ *   against ControllerApp's health.
+ * - Calls without a Deadline in the Context (e.g. batched lookups flushed on a timer)
+ *   pass through unchanged.
+ */
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    private final Duration responseTimeout;
+
+    public DeadlineExchangeFilter(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = RequestDeadline.from(context);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.isZero()) {
+                return Mono.error(new DeadlineExceededException());
+            }
+            boolean deadlineBound = remaining.compareTo(responseTimeout) < 0;
+            ClientRequest.Builder builder = ClientRequest.from(request)
+                    .header(RequestDeadline.HEADER, Long.toString(Math.max(1, remaining.toMillis())));
+            if (deadlineBound) {
+                builder.httpRequest(httpRequest -> {
+                    HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                    nativeRequest.responseTimeout(remaining);
+                });
+            }
+            Mono<ClientResponse> exchange = next.exchange(builder.build());
+            return deadlineBound
+                    ? exchange.onErrorMap(DeadlineExchangeFilter::isReadTimeout, e -> new DeadlineExceededException())
+                    : exchange;
+        });
+    }
+
+    private static boolean isReadTimeout(Throwable error) {
+        for (Throwable cause = Exceptions.unwrap(error); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ReadTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
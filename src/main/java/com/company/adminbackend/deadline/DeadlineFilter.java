@@ -0,0 +1,79 @@
+package com.company.adminbackend.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Servlet filter that records when a request arrived and the budget the caller asked for.
+ *
+ * Design decisions:
+ * - Runs right after AuditFilter, so the budget is measured from (nearly) the moment the
+ *   request arrived, including authentication.
+ * - The caller's budget comes from the X-Request-Timeout header in milliseconds, relative
+ *   rather than absolute so the caller's clock does not matter. It is capped at
+ *   admin.deadline.max; a malformed value is ignored and the endpoint default applies.
+ * - The filter does not know which endpoint will handle the request, so it only stores the
+ *   arrival time and the requested budget as request attributes; RequestDeadline.capture()
+ *   turns them into a Deadline with the endpoint's default.
+ * - Attributes are set only on the first dispatch; async dispatches keep the original
+ *   arrival time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    static final String ARRIVAL_ATTRIBUTE = DeadlineFilter.class.getName() + ".arrivalNanos";
+    static final String BUDGET_ATTRIBUTE = DeadlineFilter.class.getName() + ".budget";
+
+    private final Duration maxBudget;
+
+    public DeadlineFilter(@Value("${admin.deadline.max:60s}") Duration maxBudget) {
+        this.maxBudget = maxBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (request.getAttribute(ARRIVAL_ATTRIBUTE) == null) {
+            request.setAttribute(ARRIVAL_ATTRIBUTE, System.nanoTime());
+            Duration budget = parseBudget(request.getHeader(RequestDeadline.HEADER));
+            if (budget != null) {
+                request.setAttribute(BUDGET_ATTRIBUTE, budget.compareTo(maxBudget) > 0 ? maxBudget : budget);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private static Duration parseBudget(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis >= 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", RequestDeadline.HEADER, header);
+            return null;
+        }
+    }
+}
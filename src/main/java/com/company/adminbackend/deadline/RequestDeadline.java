@@ -0,0 +1,191 @@
+package com.company.adminbackend.deadline;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * Carries the request's Deadline through a Reactor pipeline and enforces it.
+ *
+ * Design decisions:
+ * - Same shape as ReactorRequestContext: controllers call capture() on the request thread
+ *   and attach the result with contextWrite; AdminService and DeadlineExchangeFilter read
+ *   the Deadline back from the subscriber Context.
+ * - capture() takes the endpoint's default budget; the caller's X-Request-Timeout (see
+ *   DeadlineFilter) wins when present. The budget counts from the request's arrival.
+ * - enforce() short-circuits when the deadline has already passed and otherwise times the
+ *   work out at the deadline. The timeout cancels the subscription, so in-flight
+ *   ControllerApp calls are aborted instead of running on after the caller gave up.
+ * - A stream (enforceStream) is not bounded as a whole: a listing may legitimately run
+ *   for as long as there are records and the client keeps reading. The deadline bounds
+ *   the time to the first element, after which only a gap of more than idle between
+ *   elements fails it. Gaps are timed only while the subscriber has demand outstanding,
+ *   so a slow client holding back requests (backpressure) never trips the bound.
+ */
+public final class RequestDeadline {
+
+    /** Remaining budget in milliseconds, both inbound and towards ControllerApp. */
+    public static final String HEADER = "X-Request-Timeout";
+
+    private static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Deadline for the current request: arrival time plus the caller's budget, or plus
+     * endpointDefault when the caller did not send one.
+     */
+    public static Context capture(Duration endpointDefault) {
+        long arrivalNanos = System.nanoTime();
+        Duration budget = endpointDefault;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object arrival = attributes.getAttribute(DeadlineFilter.ARRIVAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (arrival instanceof Long nanos) {
+                arrivalNanos = nanos;
+            }
+            Object requested = attributes.getAttribute(DeadlineFilter.BUDGET_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (requested instanceof Duration duration) {
+                budget = duration;
+            }
+        }
+        return Context.of(CONTEXT_KEY, Deadline.after(arrivalNanos, budget));
+    }
+
+    /**
+     * Deadline budget from now, for work that outlives the inbound request (e.g. an
+     * asynchronous job); the caller's X-Request-Timeout does not apply to it.
+     */
+    public static Context starting(Duration budget) {
+        return Context.of(CONTEXT_KEY, Deadline.after(System.nanoTime(), budget));
+    }
+
+    /**
+     * The given Context without its Deadline, for work shared by several requests (e.g. a
+     * ScanCache load) that must not be bound by whichever request happened to start it.
+     */
+    public static Context without(ContextView context) {
+        return Context.of(context).delete(CONTEXT_KEY);
+    }
+
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    /**
+     * Fails with DeadlineExceededException if the work has not finished by the deadline,
+     * cancelling it. Without a deadline in the Context the work runs unchanged.
+     */
+    public static <T> Mono<T> enforce(Mono<T> work) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = from(context);
+            if (deadline == null) {
+                return work;
+            }
+            if (deadline.isExpired()) {
+                return Mono.error(new DeadlineExceededException());
+            }
+            return work.timeout(deadline.remaining(), Mono.error(DeadlineExceededException::new));
+        });
+    }
+
+    /**
+     * Fails the stream with DeadlineExceededException if its first element has not arrived
+     * by the deadline, or if a later element takes longer than idle while the subscriber is
+     * waiting for it; the rest of the stream is cancelled. Without a deadline in the Context
+     * the first element is bounded by idle as well.
+     */
+    public static <T> Flux<T> enforceStream(Flux<T> work, Duration idle) {
+        return Flux.deferContextual(context -> {
+            Deadline deadline = from(context);
+            if (deadline != null && deadline.isExpired()) {
+                return Flux.error(new DeadlineExceededException());
+            }
+            StreamTimer timer = new StreamTimer(deadline, idle);
+            return work.doOnNext(element -> timer.received())
+                    .takeUntilOther(timer.expired())
+                    .doOnRequest(timer::requested)
+                    .doFinally(signal -> timer.stop());
+        });
+    }
+
+    /**
+     * Times the wait for the next element: armed while demand is outstanding, disarmed
+     * while the subscriber has everything it asked for.
+     */
+    private static final class StreamTimer {
+
+        private final Sinks.Empty<Void> expired = Sinks.empty();
+        private final Duration idle;
+        private Deadline firstElement;
+        private long demand;
+        private Disposable pending;
+        private long generation;
+        private boolean stopped;
+
+        StreamTimer(Deadline firstElement, Duration idle) {
+            this.firstElement = firstElement;
+            this.idle = idle;
+        }
+
+        Mono<Void> expired() {
+            return expired.asMono();
+        }
+
+        synchronized void requested(long n) {
+            demand = Operators.addCap(demand, n);
+            if (pending == null) {
+                arm();
+            }
+        }
+
+        synchronized void received() {
+            firstElement = null;
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+            disarm();
+            if (demand > 0) {
+                arm();
+            }
+        }
+
+        synchronized void stop() {
+            stopped = true;
+            disarm();
+        }
+
+        private void arm() {
+            if (stopped) {
+                return;
+            }
+            Duration wait = firstElement != null ? firstElement.remaining() : idle;
+            long armed = ++generation;
+            pending = Mono.delay(wait).subscribe(tick -> fire(armed));
+        }
+
+        /** Ignores a timer that was disarmed while it was firing. */
+        private synchronized void fire(long armed) {
+            if (armed == generation && pending != null) {
+                expired.tryEmitError(new DeadlineExceededException());
+            }
+        }
+
+        private void disarm() {
+            generation++;
+            if (pending != null) {
+                pending.dispose();
+                pending = null;
+            }
+        }
+    }
+}
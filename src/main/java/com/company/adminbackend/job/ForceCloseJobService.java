@@ -0,0 +1,176 @@
+package com.company.adminbackend.job;
+
+import com.company.adminbackend.deadline.RequestDeadline;
+import com.company.adminbackend.model.ScanResponse;
+import com.company.adminbackend.service.AdminService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Exceptions;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs force-close as a background job so the caller gets 202 Accepted immediately and
+ * polls GET /admin/jobs/{jobId} for the outcome.
+ *
+ * Design decisions:
+ * - A fixed pool of admin.jobs.workers threads takes jobs from a queue of
+ *   admin.jobs.queue-capacity. When the queue is full the submission is refused with 503
+ *   before a job is stored or audited, so a burst cannot pile up unbounded work.
+ * - Each job runs the same AdminService.forceCloseScan pipeline as the synchronous
+ *   endpoint, so it goes through the limiter, breaker and audit trail unchanged; its
+ *   ATTEMPT/SUCCESS/FAILURE events carry the jobId and the submitting request's
+ *   correlationId.
+ * - The job's deadline (admin.jobs.timeout) starts when a worker picks it up, not at
+ *   submission: time spent queued is not charged against the ControllerApp call.
+ * - A failed job records the HTTP status the synchronous endpoint would have returned.
+ * - Shutdown stops taking new jobs and waits admin.jobs.shutdown-timeout for running
+ *   ones; jobs still queued after that are marked FAILED (503).
+ */
+@Service
+public class ForceCloseJobService {
+
+    public static final String TYPE = "FORCE_CLOSE_SCAN";
+
+    private static final Logger log = LoggerFactory.getLogger(ForceCloseJobService.class);
+
+    private final AdminService adminService;
+    private final JobStore jobStore;
+    private final Duration timeout;
+    private final Duration shutdownTimeout;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ForceCloseJobService(AdminService adminService,
+                                JobStore jobStore,
+                                @Value("${admin.jobs.workers:8}") int workers,
+                                @Value("${admin.jobs.queue-capacity:1000}") int queueCapacity,
+                                @Value("${admin.jobs.timeout:5m}") Duration timeout,
+                                @Value("${admin.jobs.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.adminService = adminService;
+        this.jobStore = jobStore;
+        this.timeout = timeout;
+        this.shutdownTimeout = shutdownTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "force-close-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues a force-close of scanId and returns its PENDING job. requestContext is the
+     * submitting request's Reactor Context (correlationId, SecurityContext).
+     *
+     * @throws ResponseStatusException 503 if the job queue is full
+     */
+    public Job submit(String scanId, String username, String userId, List<String> roles, Context requestContext) {
+        Job job = new Job(TYPE, scanId, userId);
+        jobStore.add(job);
+        try {
+            executor.execute(new ForceCloseTask(job, scanId, username, userId, roles, requestContext));
+        } catch (RejectedExecutionException e) {
+            jobStore.remove(job);
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many force-close jobs queued; retry later");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            List<Runnable> queued = executor.shutdownNow();
+            for (Runnable task : queued) {
+                ((ForceCloseTask) task).job.fail(HttpStatus.SERVICE_UNAVAILABLE.value(), "Shut down before the job ran");
+            }
+            log.warn("Force-close jobs did not finish within {}; {} queued jobs abandoned",
+                    shutdownTimeout, queued.size());
+        }
+    }
+
+    private final class ForceCloseTask implements Runnable {
+
+        private final Job job;
+        private final String scanId;
+        private final String username;
+        private final String userId;
+        private final List<String> roles;
+        private final Context requestContext;
+
+        ForceCloseTask(Job job, String scanId, String username, String userId, List<String> roles,
+                       Context requestContext) {
+            this.job = job;
+            this.scanId = scanId;
+            this.username = username;
+            this.userId = userId;
+            this.roles = roles;
+            this.requestContext = requestContext;
+        }
+
+        @Override
+        public void run() {
+            job.start();
+            try {
+                ScanResponse response = adminService.forceCloseScan(scanId, username, userId, roles, job.getId())
+                        .contextWrite(requestContext)
+                        .contextWrite(RequestDeadline.starting(timeout))
+                        .block();
+                job.succeed(response);
+                succeeded.increment();
+            } catch (RuntimeException e) {
+                Throwable error = Exceptions.unwrap(e);
+                job.fail(httpStatusOf(error), error.getMessage());
+                failed.increment();
+            }
+        }
+    }
+
+    private static int httpStatusOf(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().value();
+        }
+        // Same mapping as the synchronous endpoint: transport failures are Bad Gateway.
+        return HttpStatus.BAD_GATEWAY.value();
+    }
+
+    public int getRunning() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.adminbackend.job;
+
+import com.company.adminbackend.model.JobResponse;
+import com.company.adminbackend.model.ScanResponse;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One asynchronous operation and its progress: PENDING until a worker picks it up, RUNNING,
+ * then SUCCEEDED with the ScanResponse or FAILED with the HTTP status the synchronous
+ * endpoint would have answered.
+ *
+ * Written by one worker thread and read by any request thread: the outcome fields are
+ * written before status, which is volatile, so a reader that sees a final status also sees
+ * its outcome.
+ */
+public final class Job {
+
+    public enum Status {
+        PENDING, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final String scanId;
+    private final String ownerId;
+    private final Instant submittedAt = Instant.now();
+
+    private volatile Status status = Status.PENDING;
+    private Instant startedAt;
+    private Instant completedAt;
+    private long completedAtNanos;
+    private Integer httpStatus;
+    private ScanResponse result;
+    private String error;
+
+    Job(String type, String scanId, String ownerId) {
+        this.type = type;
+        this.scanId = scanId;
+        this.ownerId = ownerId;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void succeed(ScanResponse response) {
+        result = response;
+        httpStatus = 200;
+        complete(Status.SUCCEEDED);
+    }
+
+    void fail(int status, String message) {
+        httpStatus = status;
+        error = message;
+        complete(Status.FAILED);
+    }
+
+    private void complete(Status finalStatus) {
+        completedAt = Instant.now();
+        completedAtNanos = System.nanoTime();
+        status = finalStatus;
+    }
+
+    /**
+     * True once the job has been finished for longer than ttlNanos.
+     */
+    boolean isExpired(long nowNanos, long ttlNanos) {
+        Status current = status;
+        return (current == Status.SUCCEEDED || current == Status.FAILED) && nowNanos - completedAtNanos > ttlNanos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public JobResponse toResponse() {
+        Status current = status;
+        return new JobResponse(id, type, scanId, current.name(), submittedAt,
+                current == Status.PENDING ? null : startedAt,
+                current == Status.SUCCEEDED || current == Status.FAILED ? completedAt : null,
+                httpStatus, result, error);
+    }
+}
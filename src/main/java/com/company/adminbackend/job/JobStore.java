@@ -0,0 +1,119 @@
+package com.company.adminbackend.job;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory store of asynchronous jobs, keyed by job id.
+ *
+ * Design decisions:
+ * - A finished job stays readable for admin.jobs.ttl after it completes, long enough for
+ *   the caller to poll its result; pending and running jobs never expire.
+ * - At most admin.jobs.max-size jobs are kept; beyond that the oldest submission is
+ *   evicted. The worker queue is far smaller than max-size, so in practice only finished
+ *   jobs are evicted.
+ * - Expired jobs are dropped when read, and a full sweep runs on insert at most every
+ *   quarter TTL, so memory is reclaimed without a background thread.
+ * - Jobs live in this instance only: a restart forgets them, and behind a load balancer a
+ *   poll must reach the instance that accepted the job. The audit trail (with jobId)
+ *   is the durable record.
+ */
+@Component
+public class JobStore {
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Job> jobs = new LinkedHashMap<>();
+    private long lastSweepNanos = System.nanoTime();
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public JobStore(@Value("${admin.jobs.ttl:1h}") Duration ttl,
+                    @Value("${admin.jobs.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    void add(Job job) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (now - lastSweepNanos > ttlNanos / 4) {
+                lastSweepNanos = now;
+                sweep(now);
+            }
+            jobs.put(job.getId(), job);
+            if (jobs.size() > maxSize) {
+                Iterator<Job> eldest = jobs.values().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Job job) {
+        lock.lock();
+        try {
+            jobs.remove(job.getId(), job);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the job, or null if it is unknown, evicted or expired.
+     */
+    public Job get(String jobId) {
+        lock.lock();
+        try {
+            Job job = jobs.get(jobId);
+            if (job != null && job.isExpired(System.nanoTime(), ttlNanos)) {
+                jobs.remove(jobId);
+                expirations.increment();
+                return null;
+            }
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sweep(long now) {
+        for (Iterator<Map.Entry<String, Job>> it = jobs.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().isExpired(now, ttlNanos)) {
+                it.remove();
+                expirations.increment();
+            }
+        }
+    }
+
+    public int getSize() {
+        lock.lock();
+        try {
+            return jobs.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.adminbackend.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Request payload for POST /admin/scans/force-close.
+ * Duplicate scanIds are closed once; the upper bound is enforced by AdminService.
+ */
+public class BulkForceCloseRequest {
+
+    @NotEmpty
+    private List<@NotBlank String> scanIds;
+
+    public BulkForceCloseRequest() {
+    }
+
+    public BulkForceCloseRequest(List<String> scanIds) {
+        this.scanIds = scanIds;
+    }
+
+    public List<String> getScanIds() {
+        return scanIds;
+    }
+
+    public void setScanIds(List<String> scanIds) {
+        this.scanIds = scanIds;
+    }
+}
@@ -0,0 +1,80 @@
+package com.company.adminbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Per-scan outcome streamed back by POST /admin/scans/force-close, one NDJSON line per scan
+ * in completion order.
+ * JsonInclude(NON_NULL) keeps success lines free of error fields and vice versa.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkForceCloseResult {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+
+    private String scanId;
+    private String outcome;
+    private int httpStatus;
+    private ScanResponse response;
+    private String error;
+
+    public BulkForceCloseResult() {
+    }
+
+    public BulkForceCloseResult(String scanId, String outcome, int httpStatus, ScanResponse response, String error) {
+        this.scanId = scanId;
+        this.outcome = outcome;
+        this.httpStatus = httpStatus;
+        this.response = response;
+        this.error = error;
+    }
+
+    public static BulkForceCloseResult success(String scanId, ScanResponse response) {
+        return new BulkForceCloseResult(scanId, SUCCESS, 200, response, null);
+    }
+
+    public static BulkForceCloseResult failure(String scanId, int httpStatus, String error) {
+        return new BulkForceCloseResult(scanId, FAILURE, httpStatus, null, error);
+    }
+
+    public String getScanId() {
+        return scanId;
+    }
+
+    public void setScanId(String scanId) {
+        this.scanId = scanId;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public ScanResponse getResponse() {
+        return response;
+    }
+
+    public void setResponse(ScanResponse response) {
+        this.response = response;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,124 @@
+package com.company.adminbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous job, returned by POST /admin/scan/{scanId}/force-close/async
+ * (202) and GET /admin/jobs/{jobId}.
+ * JsonInclude(NON_NULL) leaves out the timestamps, result and error fields a job does not
+ * have yet.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobResponse {
+
+    private String jobId;
+    private String type;
+    private String scanId;
+    private String status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private Integer httpStatus;
+    private ScanResponse result;
+    private String error;
+
+    public JobResponse() {
+    }
+
+    public JobResponse(String jobId, String type, String scanId, String status, Instant submittedAt,
+                       Instant startedAt, Instant completedAt, Integer httpStatus, ScanResponse result,
+                       String error) {
+        this.jobId = jobId;
+        this.type = type;
+        this.scanId = scanId;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.httpStatus = httpStatus;
+        this.result = result;
+        this.error = error;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getScanId() {
+        return scanId;
+    }
+
+    public void setScanId(String scanId) {
+        this.scanId = scanId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public ScanResponse getResult() {
+        return result;
+    }
+
+    public void setResult(ScanResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
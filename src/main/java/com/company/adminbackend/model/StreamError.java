@@ -0,0 +1,53 @@
+package com.company.adminbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Last line of an NDJSON stream that failed after records had already been sent. The 200
+ * is on the wire by then, so this line is what tells a cut stream from a complete one; it
+ * has no scanId, and a client recognises it by its "error" field.
+ * JsonInclude(NON_NULL) leaves message out when there is none.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamError {
+
+    public static final String DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
+    public static final String FAILURE = "FAILURE";
+
+    private String error;
+    private int httpStatus;
+    private String message;
+
+    public StreamError() {
+    }
+
+    public StreamError(String error, int httpStatus, String message) {
+        this.error = error;
+        this.httpStatus = httpStatus;
+        this.message = message;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
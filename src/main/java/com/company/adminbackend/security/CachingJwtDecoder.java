@@ -0,0 +1,154 @@
+package com.company.adminbackend.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JwtDecoder that remembers successfully validated tokens, so the signature and claim
+ * validators run once per token instead of once per request.
+ *
+ * Design decisions:
+ * - Keyed by the SHA-256 of the raw token rather than the token itself, so the map keys
+ *   are not bearer credentials and have a fixed size.
+ * - Only tokens that passed the delegate (signature, issuer, timestamps, audience) are
+ *   stored, and only if they carry "exp". Rejected tokens are never cached, so a forged
+ *   token always goes through full verification.
+ * - An entry is usable until expiry-skew before "exp"; that is re-checked on every hit
+ *   and a stale entry is dropped, so the token goes back through the delegate, whose
+ *   timestamp validator decides whether it is still acceptable.
+ * - Reads are lock-free (ConcurrentHashMap). When max-size is exceeded one thread sweeps:
+ *   expired entries first, then arbitrary entries until 10% below the limit, so sweeps
+ *   stay rare even when the cache is full of live tokens.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private record CachedJwt(Jwt jwt, long usableUntilMillis) {
+    }
+
+    /**
+     * Cloned per call instead of held in a ThreadLocal: with virtual request threads every
+     * request is a new thread, and a clone is cheaper than getInstance plus a ThreadLocalMap.
+     */
+    private static final MessageDigest SHA_256;
+
+    static {
+        try {
+            SHA_256 = MessageDigest.getInstance("SHA-256");
+            SHA_256.clone();
+        } catch (NoSuchAlgorithmException | CloneNotSupportedException e) {
+            throw new IllegalStateException("A cloneable SHA-256 is not available", e);
+        }
+    }
+
+    private final JwtDecoder delegate;
+    private final int maxSize;
+    private final long expirySkewMillis;
+
+    private final Map<String, CachedJwt> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Duration expirySkew) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.expirySkewMillis = expirySkew.toMillis();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        CachedJwt cached = cache.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() < cached.usableUntilMillis()) {
+                hits.increment();
+                return cached.jwt();
+            }
+            cache.remove(key, cached);
+            evictions.increment();
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null) {
+            long usableUntil = expiresAt.toEpochMilli() - expirySkewMillis;
+            if (usableUntil > System.currentTimeMillis()) {
+                cache.put(key, new CachedJwt(jwt, usableUntil));
+                if (cache.size() > maxSize) {
+                    sweep();
+                }
+            }
+        }
+        return jwt;
+    }
+
+    private static String hash(String token) {
+        byte[] digest = sha256().digest(token.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void sweep() {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(entry -> {
+                if (now >= entry.usableUntilMillis()) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+            int target = maxSize - maxSize / 10;
+            Iterator<CachedJwt> iterator = cache.values().iterator();
+            while (cache.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -2,13 +2,10 @@ package com.company.adminbackend.security;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Converts the "roles" claim in the Entra ID JWT into Spring Security GrantedAuthority objects.
@@ -19,20 +16,26 @@ import java.util.stream.Collectors;
  *   so we prefix each role with "ROLE_".
  * - If the claim is missing the user has no roles, which effectively denies
  *   access to any role-protected endpoint.
+ * - The authorities come from the interned RoleSet for the claim, so no authority objects
+ *   are allocated per request.
  */
 public class JwtRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
     private static final String ROLES_CLAIM = "roles";
-    private static final String ROLE_PREFIX = "ROLE_";
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
-        List<String> roles = jwt.getClaimAsStringList(ROLES_CLAIM);
-        if (roles == null || roles.isEmpty()) {
-            return Collections.emptyList();
+        return roleSet(jwt).authorities();
+    }
+
+    static RoleSet roleSet(Jwt jwt) {
+        Object claim = jwt.getClaims().get(ROLES_CLAIM);
+        if (claim instanceof List<?> list && list.stream().allMatch(String.class::isInstance)) {
+            @SuppressWarnings("unchecked")
+            List<String> roles = (List<String>) list;
+            return RoleSet.of(roles);
         }
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role))
-                .collect(Collectors.toUnmodifiableList());
+        // Unusual shapes (single string, mixed values): fall back to Spring's conversion.
+        return RoleSet.of(jwt.getClaimAsStringList(ROLES_CLAIM));
     }
 }
@@ -0,0 +1,315 @@
+package com.company.adminbackend.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Signing-key source for inbound JWTs that keeps the issuer's JWKS current in the background.
+ *
+ * Design decisions:
+ * - Replaces JwtDecoders.fromIssuerLocation, which performs OIDC discovery during bean
+ *   creation: startup does no network I/O. The last known issuer metadata and JWKS are
+ *   persisted to security.jwks.snapshot-file and loaded at startup, so the service can
+ *   verify tokens immediately even if the issuer is slow or unreachable.
+ * - A background thread re-runs discovery and fetches the JWKS every
+ *   security.jwks.refresh-interval (and once right after startup), replacing the
+ *   in-memory key set and the snapshot file on success. A failed refresh keeps the
+ *   current keys.
+ * - A token whose kid is not in the current set triggers a refetch in the background,
+ *   at most once per security.jwks.min-refetch-interval, and only one at a time. The
+ *   request itself is answered from the current set; request threads only wait for a
+ *   fetch when no key set is available at all (first start without a snapshot), and that
+ *   fetch is single-flight.
+ * - Consequence: get() only schedules that refetch, so the first token signed with a key
+ *   the service has not seen yet is rejected (401); once the refetch lands, the same
+ *   token is accepted. Issuers publish a new key well before signing with it, so the
+ *   scheduled refresh normally has it first; only a rotation faster than
+ *   refresh-interval shows the 401s, for about one JWKS round trip.
+ * - The snapshot stores public keys only and is written to a temporary file and moved
+ *   into place, so a crash never leaves a truncated snapshot behind.
+ */
+@Component
+public class ManagedJwkSource implements JWKSource<SecurityContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagedJwkSource.class);
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private record KeySetSnapshot(String jwksUri, JWKSet keys, Instant fetchedAt) {
+    }
+
+    private final String issuerUri;
+    private final Path snapshotFile;
+    private final Duration refreshInterval;
+    private final long minRefetchIntervalNanos;
+    private final Set<JWSAlgorithm> algorithms;
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReentrantLock fetchLock = new ReentrantLock();
+    private final ScheduledExecutorService refresher;
+    private final AtomicBoolean refetchPending = new AtomicBoolean();
+    private final AtomicLong lastRefetchNanos;
+    private volatile KeySetSnapshot current;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder unknownKidRefetches = new LongAdder();
+
+    public ManagedJwkSource(@Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                            @Value("${security.jwks.snapshot-file}") Path snapshotFile,
+                            @Value("${security.jwks.refresh-interval:1h}") Duration refreshInterval,
+                            @Value("${security.jwks.min-refetch-interval:30s}") Duration minRefetchInterval,
+                            @Value("${security.jwks.http-timeout:5s}") Duration httpTimeout,
+                            @Value("${security.jwks.algorithms:RS256}") List<String> algorithms) {
+        this.issuerUri = issuerUri;
+        this.snapshotFile = snapshotFile;
+        this.refreshInterval = refreshInterval;
+        this.minRefetchIntervalNanos = minRefetchInterval.toNanos();
+        this.algorithms = algorithms.stream().map(JWSAlgorithm::parse).collect(Collectors.toUnmodifiableSet());
+        this.lastRefetchNanos = new AtomicLong(System.nanoTime() - minRefetchIntervalNanos);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(httpTimeout);
+        requestFactory.setReadTimeout(httpTimeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.current = loadSnapshot();
+    }
+
+    @PostConstruct
+    void start() {
+        refresher.scheduleWithFixedDelay(() -> refresh("scheduled"),
+                0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Signature algorithms accepted for inbound tokens (security.jwks.algorithms).
+     */
+    public Set<JWSAlgorithm> getAlgorithms() {
+        return algorithms;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        KeySetSnapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = fetchWhenMissing();
+        }
+        List<JWK> keys = selector.select(snapshot.keys());
+        if (keys.isEmpty() && hasUnknownKeyId(selector, snapshot.keys())) {
+            requestRefetch();
+        }
+        return keys;
+    }
+
+    private static boolean hasUnknownKeyId(JWKSelector selector, JWKSet keys) {
+        Set<String> keyIds = selector.getMatcher().getKeyIDs();
+        if (keyIds == null || keyIds.isEmpty()) {
+            return false;
+        }
+        for (String keyId : keyIds) {
+            if (keyId != null && keys.getKeyByKeyId(keyId) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void requestRefetch() {
+        long now = System.nanoTime();
+        long last = lastRefetchNanos.get();
+        if (now - last < minRefetchIntervalNanos || !lastRefetchNanos.compareAndSet(last, now)) {
+            return;
+        }
+        if (refetchPending.compareAndSet(false, true)) {
+            unknownKidRefetches.increment();
+            refresher.execute(() -> {
+                try {
+                    refresh("unknown kid");
+                } finally {
+                    refetchPending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Blocking, single-flight fetch for when no key set has ever been loaded.
+     */
+    private KeySetSnapshot fetchWhenMissing() throws KeySourceException {
+        fetchLock.lock();
+        try {
+            if (current == null) {
+                current = fetch();
+                writeSnapshot(current);
+            }
+            return current;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw new KeySourceException("No JWKS available for " + issuerUri + ": " + e.getMessage(), e);
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private void refresh(String reason) {
+        fetchLock.lock();
+        try {
+            KeySetSnapshot fetched = fetch();
+            current = fetched;
+            writeSnapshot(fetched);
+            log.debug("JWKS refreshed ({}): {} keys from {}", reason, fetched.keys().getKeys().size(), fetched.jwksUri());
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("JWKS refresh ({}) from {} failed, keeping {} current keys: {}", reason, issuerUri,
+                    current != null ? current.keys().getKeys().size() : 0, e.getMessage());
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    /**
+     * OIDC discovery followed by the JWKS download. Called with fetchLock held.
+     */
+    private KeySetSnapshot fetch() {
+        Map<String, Object> metadata = parseObject(restClient.get()
+                .uri(issuerUri.replaceAll("/+$", "") + DISCOVERY_PATH)
+                .retrieve()
+                .body(String.class));
+        Object issuer = metadata.get("issuer");
+        if (!issuerUri.equals(issuer)) {
+            throw new IllegalStateException("Discovery document issuer " + issuer + " does not match " + issuerUri);
+        }
+        Object jwksUri = metadata.get("jwks_uri");
+        if (!(jwksUri instanceof String uri)) {
+            throw new IllegalStateException("Discovery document has no jwks_uri");
+        }
+
+        String jwks = restClient.get().uri(uri).retrieve().body(String.class);
+        try {
+            KeySetSnapshot fetched = new KeySetSnapshot(uri, JWKSet.parse(jwks), Instant.now());
+            refreshes.increment();
+            return fetched;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Malformed JWKS from " + uri, e);
+        }
+    }
+
+    private Map<String, Object> parseObject(String json) {
+        try {
+            return objectMapper.readValue(json, JSON_OBJECT);
+        } catch (IOException e) {
+            throw new IllegalStateException("Malformed discovery document", e);
+        }
+    }
+
+    private KeySetSnapshot loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            log.info("No JWKS snapshot at {}; keys will be fetched from {}", snapshotFile, issuerUri);
+            return null;
+        }
+        try {
+            Map<String, Object> stored = objectMapper.readValue(snapshotFile.toFile(), JSON_OBJECT);
+            if (!issuerUri.equals(stored.get("issuer"))) {
+                log.warn("Ignoring JWKS snapshot {} written for another issuer ({})", snapshotFile, stored.get("issuer"));
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> keys = (Map<String, Object>) stored.get("jwks");
+            KeySetSnapshot snapshot = new KeySetSnapshot((String) stored.get("jwks_uri"), JWKSet.parse(keys),
+                    Instant.parse((String) stored.get("fetched_at")));
+            log.info("Loaded {} signing keys from JWKS snapshot {} (fetched at {})",
+                    snapshot.keys().getKeys().size(), snapshotFile, snapshot.fetchedAt());
+            return snapshot;
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Ignoring unreadable JWKS snapshot {}: {}", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshot(KeySetSnapshot snapshot) {
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("issuer", issuerUri);
+        stored.put("jwks_uri", snapshot.jwksUri());
+        stored.put("fetched_at", snapshot.fetchedAt().toString());
+        stored.put("jwks", snapshot.keys().toJSONObject(true));
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "jwks-", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), stored);
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The in-memory keys are already current; only the next cold start is affected.
+            log.warn("Failed to write JWKS snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    public int getKeyCount() {
+        KeySetSnapshot snapshot = current;
+        return snapshot != null ? snapshot.keys().getKeys().size() : 0;
+    }
+
+    public Instant getLastFetchedAt() {
+        KeySetSnapshot snapshot = current;
+        return snapshot != null ? snapshot.fetchedAt() : null;
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    public long getUnknownKidRefetches() {
+        return unknownKidRefetches.sum();
+    }
+}
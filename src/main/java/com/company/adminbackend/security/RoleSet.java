@@ -0,0 +1,90 @@
+package com.company.adminbackend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned combination of app roles from the JWT "roles" claim, with the matching
+ * ROLE_-prefixed authorities.
+ *
+ * Design decisions:
+ * - Only a handful of distinct role combinations exist across all users, so each one is
+ *   built once and shared: the same immutable role list and authority list are handed to
+ *   every request with that combination.
+ * - Each role maps to one canonical SimpleGrantedAuthority instance, shared across sets.
+ * - The intern tables are bounded (MAX_INTERNED); beyond that, combinations are built per
+ *   call, so an unexpected variety of claims cannot grow memory without limit.
+ */
+public final class RoleSet {
+
+    static final String ROLE_PREFIX = "ROLE_";
+    private static final int MAX_INTERNED = 1024;
+
+    public static final RoleSet EMPTY = new RoleSet(List.of(), List.of());
+
+    private static final Map<List<String>, RoleSet> INTERNED = new ConcurrentHashMap<>();
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final List<String> roles;
+    private final List<GrantedAuthority> authorities;
+
+    private RoleSet(List<String> roles, List<GrantedAuthority> authorities) {
+        this.roles = roles;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Returns the shared RoleSet for the given role names (without the ROLE_ prefix).
+     */
+    public static RoleSet of(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return EMPTY;
+        }
+        RoleSet interned = INTERNED.get(roles);
+        if (interned != null) {
+            return interned;
+        }
+        RoleSet created = create(roles);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return created;
+        }
+        RoleSet raced = INTERNED.putIfAbsent(created.roles, created);
+        return raced != null ? raced : created;
+    }
+
+    private static RoleSet create(List<String> roles) {
+        List<String> names = List.copyOf(roles);
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        for (String role : names) {
+            authorities.add(authority(role));
+        }
+        return new RoleSet(names, List.copyOf(authorities));
+    }
+
+    private static GrantedAuthority authority(String role) {
+        GrantedAuthority authority = AUTHORITIES.get(role);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(ROLE_PREFIX + role);
+        if (AUTHORITIES.size() >= MAX_INTERNED) {
+            return authority;
+        }
+        GrantedAuthority raced = AUTHORITIES.putIfAbsent(role, authority);
+        return raced != null ? raced : authority;
+    }
+
+    /** Role names without the ROLE_ prefix, e.g. [ADMIN, SUPPORT]. */
+    public List<String> roles() {
+        return roles;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return authorities;
+    }
+}
@@ -1,26 +1,50 @@
 package com.company.adminbackend.security;
 
+import com.company.adminbackend.config.ControllerAppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Retrieves and caches an OAuth2 client-credentials token for calling ControllerApp.
  *
  * Design decisions:
- * - Delegates to Spring's OAuth2AuthorizedClientManager which handles:
- *     • token acquisition via the client-credentials grant
- *     • caching of tokens until they expire
- *     • automatic refresh when the cached token is expired
- *   This avoids manual token caching and TTL logic.
+ * - Delegates token acquisition to Spring's OAuth2AuthorizedClientManager (client-credentials
+ *   grant); this class only decides when to ask for a new token.
  * - The registration id "controller-app" matches application.yml.
  * - The principal name is a synthetic value ("admin-app-backend") because the
  *   client-credentials flow has no end-user principal.
+ * - The current token is held in a volatile immutable snapshot. A request reads it with
+ *   one volatile load and a clock comparison: no lock, no allocation.
+ * - A single background thread refreshes the token once controller-app.token.refresh-fraction
+ *   of its lifetime has elapsed, so requests never wait on the token endpoint while the old
+ *   token is still valid. Failed refreshes are retried with jittered exponential backoff.
+ * - Only when there is no usable token (startup, or refreshes failing until expiry) does a
+ *   caller fetch synchronously; refreshLock makes that single-flight, so concurrent callers
+ *   wait for one fetch instead of stampeding the token endpoint.
+ * - The manager hands back its stored client until that token is actually expired, so the
+ *   stored client is removed first to force re-acquisition ahead of expiry.
+ * - Each acquisition is timed in the controller.app.token.acquire histogram, tagged by
+ *   outcome; the token endpoint's latency is otherwise invisible because requests no
+ *   longer wait for it.
  */
 @Component
 public class ServiceTokenProvider {
@@ -29,17 +53,149 @@ public class ServiceTokenProvider {
     private static final String REGISTRATION_ID = "controller-app";
     private static final String PRINCIPAL_NAME = "admin-app-backend";
 
+    private record TokenSnapshot(String value, long usableUntilMillis) {
+    }
+
     private final OAuth2AuthorizedClientManager clientManager;
+    private final OAuth2AuthorizedClientService authorizedClientService;
+    private final double refreshFraction;
+    private final long expirySkewMillis;
+    private final long retryInitialBackoffMillis;
+    private final long retryMaxBackoffMillis;
 
-    public ServiceTokenProvider(OAuth2AuthorizedClientManager clientManager) {
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final ScheduledExecutorService refresher;
+    private volatile TokenSnapshot snapshot;
+    private ScheduledFuture<?> nextRefresh;
+    private int consecutiveFailures;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final Timer acquireSuccessTimer;
+    private final Timer acquireFailureTimer;
+
+    public ServiceTokenProvider(OAuth2AuthorizedClientManager clientManager,
+                                OAuth2AuthorizedClientService authorizedClientService,
+                                ControllerAppProperties properties,
+                                MeterRegistry meterRegistry) {
         this.clientManager = clientManager;
+        this.authorizedClientService = authorizedClientService;
+        this.acquireSuccessTimer = acquireTimer(meterRegistry, "SUCCESS");
+        this.acquireFailureTimer = acquireTimer(meterRegistry, "FAILURE");
+        ControllerAppProperties.Token token = properties.getToken();
+        this.refreshFraction = token.getRefreshFraction();
+        this.expirySkewMillis = token.getExpirySkew().toMillis();
+        this.retryInitialBackoffMillis = token.getRetryInitialBackoff().toMillis();
+        this.retryMaxBackoffMillis = token.getRetryMaxBackoff().toMillis();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "service-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        // Warm the token in the background so the first request does not pay for it.
+        refreshLock.lock();
+        try {
+            schedule(0);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
     }
 
     /**
-     * Returns a valid access token for the ControllerApp.
-     * The underlying client manager caches the token and only re-acquires when expired.
+     * Returns a valid access token for the ControllerApp, fetching one synchronously only
+     * if no usable token is held.
      */
     public String getServiceToken() {
+        String token = getCachedServiceToken();
+        if (token != null) {
+            return token;
+        }
+        refreshLock.lock();
+        try {
+            // Another caller (or the background refresh) may have fetched it meanwhile.
+            token = getCachedServiceToken();
+            if (token != null) {
+                return token;
+            }
+            return refresh().value();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the held token if it is still usable, or null. Never blocks.
+     */
+    public String getCachedServiceToken() {
+        TokenSnapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() < current.usableUntilMillis()) {
+            return current.value();
+        }
+        return null;
+    }
+
+    private void backgroundRefresh() {
+        refreshLock.lock();
+        try {
+            refresh();
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            long backoff = retryBackoffMillis(++consecutiveFailures);
+            log.warn("Service token refresh failed (attempt {}), retrying in {} ms: {}",
+                    consecutiveFailures, backoff, e.getMessage());
+            schedule(backoff);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Fetches a new token, publishes it and schedules the next background refresh.
+     * Called with refreshLock held.
+     */
+    private TokenSnapshot refresh() {
+        long start = System.nanoTime();
+        OAuth2AccessToken accessToken;
+        try {
+            accessToken = fetch();
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            acquireFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        acquireSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        refreshes.increment();
+
+        long now = System.currentTimeMillis();
+        Instant issuedAt = accessToken.getIssuedAt();
+        Instant expiresAt = accessToken.getExpiresAt();
+        long issuedMillis = issuedAt != null ? Math.min(issuedAt.toEpochMilli(), now) : now;
+        long expiresMillis = expiresAt != null ? expiresAt.toEpochMilli() : Long.MAX_VALUE;
+
+        TokenSnapshot fresh = new TokenSnapshot(accessToken.getTokenValue(), expiresMillis - expirySkewMillis);
+        snapshot = fresh;
+        if (expiresAt != null) {
+            long refreshAt = issuedMillis + (long) ((expiresMillis - issuedMillis) * refreshFraction);
+            schedule(Math.max(0, refreshAt - now));
+        }
+        log.debug("Service token obtained, expires at {}", expiresAt);
+        return fresh;
+    }
+
+    private OAuth2AccessToken fetch() {
+        // Drop the stored client so the manager requests a new token instead of
+        // returning the one it still considers valid.
+        authorizedClientService.removeAuthorizedClient(REGISTRATION_ID, PRINCIPAL_NAME);
+
         OAuth2AuthorizeRequest request = OAuth2AuthorizeRequest
                 .withClientRegistrationId(REGISTRATION_ID)
                 .principal(PRINCIPAL_NAME)
@@ -50,9 +206,51 @@ public class ServiceTokenProvider {
         if (authorizedClient == null || authorizedClient.getAccessToken() == null) {
             throw new IllegalStateException("Failed to obtain service token for ControllerApp");
         }
+        return authorizedClient.getAccessToken();
+    }
+
+    private static Timer acquireTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("controller.app.token.acquire")
+                .description("Client-credentials token requests to the identity provider")
+                .tags("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces any pending refresh, so there is only ever one scheduled. Called with
+     * refreshLock held.
+     */
+    private void schedule(long delayMillis) {
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
+        }
+        if (!refresher.isShutdown()) {
+            nextRefresh = refresher.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at retry-max-backoff, with "equal jitter" so instances
+     * that failed together do not retry together.
+     */
+    private long retryBackoffMillis(int attempt) {
+        long ceiling = Math.min(retryMaxBackoffMillis, retryInitialBackoffMillis << Math.min(attempt - 1, 20));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
 
-        OAuth2AccessToken accessToken = authorizedClient.getAccessToken();
-        log.debug("Service token obtained, expires at {}", accessToken.getExpiresAt());
-        return accessToken.getTokenValue();
+    /** Milliseconds until the held token stops being handed out; negative if none is usable. */
+    public long getTokenRemainingMillis() {
+        TokenSnapshot current = snapshot;
+        return current != null ? current.usableUntilMillis() - System.currentTimeMillis() : -1;
     }
 }
@@ -0,0 +1,52 @@
+package com.company.adminbackend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtDecoder that times each full decode (parse, signature check, claim validation) in the
+ * security.jwt.decode histogram, tagged by outcome.
+ *
+ * Design decisions:
+ * - Wraps the Nimbus decoder, inside CachingJwtDecoder, so the histogram shows what
+ *   verification costs; cache hits are visible through CachingJwtDecoder's counters.
+ * - The two timers are registered once; recording is a plain method call per token.
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.validTimer = timer(meterRegistry, "VALID");
+        this.invalidTimer = timer(meterRegistry, "INVALID");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        try {
+            Jwt jwt = delegate.decode(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        } catch (JwtException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("security.jwt.decode")
+                .description("Inbound JWT parsing, signature verification and claim validation")
+                .tags("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.company.adminbackend.security;
+
+import java.util.List;
+
+/**
+ * Identity of the authenticated caller, resolved once per request from the validated JWT.
+ *
+ * Declare it as a controller method parameter to receive it (see UserContextArgumentResolver).
+ * roles is the interned, immutable list from RoleSet.
+ */
+public record UserContext(String username, String userId, List<String> roles) {
+}
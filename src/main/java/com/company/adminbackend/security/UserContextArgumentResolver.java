@@ -0,0 +1,38 @@
+package com.company.adminbackend.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Supplies the current request's UserContext to controller parameters of that type.
+ * Registered in WebMvcConfig.
+ */
+public class UserContextArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UserContextService userContextService;
+
+    public UserContextArgumentResolver(UserContextService userContextService) {
+        this.userContextService = userContextService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UserContext.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public UserContext resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                       NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        UserContext user = userContextService.resolve(SecurityContextHolder.getContext().getAuthentication());
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "No authenticated user");
+        }
+        return user;
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.adminbackend.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Turns a validated Jwt into a UserContextAuthenticationToken: authorities from the
+ * interned RoleSet and the UserContext resolved once, at authentication time.
+ */
+public class UserContextAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final UserContextService userContextService;
+
+    public UserContextAuthenticationConverter(UserContextService userContextService) {
+        this.userContextService = userContextService;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        RoleSet roleSet = JwtRoleConverter.roleSet(jwt);
+        return new UserContextAuthenticationToken(jwt, roleSet, userContextService.resolve(jwt, roleSet));
+    }
+}
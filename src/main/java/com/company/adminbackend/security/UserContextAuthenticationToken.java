@@ -0,0 +1,22 @@
+package com.company.adminbackend.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * JwtAuthenticationToken that also carries the UserContext resolved during authentication,
+ * so controllers do not extract claims again.
+ */
+public class UserContextAuthenticationToken extends JwtAuthenticationToken {
+
+    private final UserContext userContext;
+
+    public UserContextAuthenticationToken(Jwt jwt, RoleSet roleSet, UserContext userContext) {
+        super(jwt, roleSet.authorities(), userContext.userId());
+        this.userContext = userContext;
+    }
+
+    public UserContext getUserContext() {
+        return userContext;
+    }
+}
@@ -1,46 +1,43 @@
 package com.company.adminbackend.security;
 
-import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Extracts user identity from the validated JWT carried by the current request.
  *
  * Design decisions:
- * - Receives JwtAuthenticationToken (already validated by the resource-server filter chain).
+ * - Works on the Jwt already validated by the resource-server filter chain.
  * - "preferred_username" is the Entra ID claim for the user's email / UPN.
  * - "sub" is the immutable object-id that uniquely identifies the user.
- * - Roles come from the authorities already mapped by JwtRoleConverter;
- *   we strip the "ROLE_" prefix so callers get clean domain names (ADMIN, SUPPORT).
+ * - Roles come from the "roles" claim through RoleSet, so identical role combinations
+ *   share one immutable list; they carry no "ROLE_" prefix (ADMIN, SUPPORT).
+ * - Resolution happens once per request, in UserContextAuthenticationConverter; later
+ *   lookups read the UserContext stored on the authentication token.
  */
 @Service
 public class UserContextService {
 
-    private static final String ROLE_PREFIX = "ROLE_";
-
-    public String getUsername(JwtAuthenticationToken token) {
-        Object preferred = token.getTokenAttributes().get("preferred_username");
-        return preferred != null ? preferred.toString() : token.getName();
-    }
-
-    public String getUserId(JwtAuthenticationToken token) {
+    public UserContext resolve(Jwt jwt, RoleSet roleSet) {
+        Object preferred = jwt.getClaims().get("preferred_username");
         // "sub" is the standard OIDC subject claim — stable across sessions.
-        return token.getToken().getSubject();
+        String userId = jwt.getSubject();
+        String username = preferred != null ? preferred.toString() : userId;
+        return new UserContext(username, userId, roleSet.roles());
     }
 
-    public List<String> getRoles(JwtAuthenticationToken token) {
-        if (token.getAuthorities() == null) {
-            return Collections.emptyList();
+    /**
+     * Returns the UserContext of an authenticated request, or null if it carries no JWT.
+     */
+    public UserContext resolve(Authentication authentication) {
+        if (authentication instanceof UserContextAuthenticationToken token) {
+            return token.getUserContext();
+        }
+        if (authentication instanceof JwtAuthenticationToken token) {
+            return resolve(token.getToken(), JwtRoleConverter.roleSet(token.getToken()));
         }
-        return token.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(a -> a.startsWith(ROLE_PREFIX))
-                .map(a -> a.substring(ROLE_PREFIX.length()))
-                .collect(Collectors.toUnmodifiableList());
+        return null;
     }
 }
@@ -1,14 +1,30 @@
 package com.company.adminbackend.service;
 
 import com.company.adminbackend.audit.AuditEvent;
-import com.company.adminbackend.audit.AuditFilter;
 import com.company.adminbackend.audit.AuditService;
+import com.company.adminbackend.audit.ReactorRequestContext;
 import com.company.adminbackend.client.ControllerClient;
+import com.company.adminbackend.client.ControllerClient.RawScan;
+import com.company.adminbackend.deadline.DeadlineExceededException;
+import com.company.adminbackend.deadline.RequestDeadline;
+import com.company.adminbackend.model.BulkForceCloseResult;
 import com.company.adminbackend.model.ScanResponse;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Business logic layer that orchestrates admin operations.
@@ -21,104 +37,283 @@ import java.util.List;
  * - User context (username, userId, roles) is passed in from the controller rather
  *   than injecting SecurityContext here, keeping the service layer decoupled from
  *   the servlet/security stack.
+ * - Operations return Mono/Flux and the ATTEMPT/SUCCESS/FAILURE events are steps of the
+ *   pipeline. The correlationId comes from the Reactor Context (see ReactorRequestContext)
+ *   because MDC is not visible on the threads the pipeline continues on.
+ * - Bulk force-close fans out with flatMap bounded by admin.bulk-force-close.parallelism
+ *   and emits the same per-scan ATTEMPT/SUCCESS/FAILURE events as forceCloseScan.
+ * - getScan reads through ScanCache when it is enabled; a cached answer still produces the
+ *   GET_SCAN ATTEMPT/SUCCESS events, with cached=true on SUCCESS. A successful force-close
+ *   invalidates the scan's cache entry. An expired entry is revalidated with ControllerApp
+ *   (If-None-Match) rather than fetched again; that is an upstream call, so not cached.
+ * - A call ControllerClient rejects up front (circuit open, concurrency limit) fails with
+ *   ControllerAppUnavailableException and takes the ordinary FAILURE path, so rejected
+ *   attempts stay visible in the audit trail and bulk results report 503.
+ * - The ControllerApp step runs under RequestDeadline.enforce: once the request's deadline
+ *   passes the call is cancelled (or never started), the caller gets 504 and the outcome
+ *   is audited as DEADLINE_EXCEEDED instead of FAILURE. In a bulk request the remaining
+ *   scans short-circuit the same way once the shared deadline is spent.
+ * - listScans passes ControllerApp's stream through record by record without collecting
+ *   it. It is audited once per listing, not per record: ATTEMPT, then SUCCESS when the
+ *   stream completes, FAILURE/DEADLINE_EXCEEDED when it fails, or CANCELLED when the
+ *   caller disconnects. The filter is recorded as the event's resourceId.
+ * - A listing's deadline bounds the wait for its first record, then only a gap of more
+ *   than admin.deadline.list-scans-idle while the caller is waiting for a record fails it
+ *   (RequestDeadline.enforceStream); a long listing or a slow reader is not cut. The
+ *   deadline is not forwarded to ControllerApp, since it does not bound the stream's length.
+ * - watchScan writes one WATCH_SCAN/SUBSCRIBED event per subscription; the polls behind it
+ *   are shared between watchers by ScanWatcher and are not audited. A successful
+ *   force-close wakes the scan's poller so watchers see the change at once.
+ * - The *Raw variants serve passthrough mode: same audit events and error path, but
+ *   ControllerApp's body is returned as bytes and never decoded.
+ * - A force-close run as an asynchronous job (ForceCloseJobService) is the same pipeline;
+ *   its events also carry the jobId.
+ * - A force-close, single or bulk, runs detached from its caller once it has started: a
+ *   client that disconnects stops waiting, but the ControllerApp call still completes (or
+ *   hits the request's deadline) and its real outcome is audited. Cancelling the call
+ *   instead would leave an ATTEMPT with no outcome while the scan may well be closed.
+ * - A 2xx from ControllerApp without a body is a success like any other: SUCCESS is
+ *   audited and a force-close still invalidates the cache and wakes watchers; the caller
+ *   then gets an empty 200, and a bulk request a SUCCESS line without a response.
  */
 @Service
 public class AdminService {
 
     private final ControllerClient controllerClient;
     private final AuditService auditService;
+    private final ScanCache scanCache;
+    private final ScanWatcher scanWatcher;
+    private final int bulkParallelism;
+    private final int bulkMaxScanIds;
+    private final Duration listScansIdle;
 
-    public AdminService(ControllerClient controllerClient, AuditService auditService) {
+    public AdminService(ControllerClient controllerClient,
+                        AuditService auditService,
+                        ObjectProvider<ScanCache> scanCache,
+                        ScanWatcher scanWatcher,
+                        @Value("${admin.bulk-force-close.parallelism:8}") int bulkParallelism,
+                        @Value("${admin.bulk-force-close.max-scan-ids:500}") int bulkMaxScanIds,
+                        @Value("${admin.deadline.list-scans-idle:30s}") Duration listScansIdle) {
         this.controllerClient = controllerClient;
         this.auditService = auditService;
+        this.scanCache = scanCache.getIfAvailable();
+        this.scanWatcher = scanWatcher;
+        this.bulkParallelism = bulkParallelism;
+        this.bulkMaxScanIds = bulkMaxScanIds;
+        this.listScansIdle = listScansIdle;
     }
 
-    public ScanResponse forceCloseScan(String scanId, String username, String userId, List<String> roles) {
-        String correlationId = MDC.get(AuditFilter.CORRELATION_ID_KEY);
+    public Mono<ScanResponse> forceCloseScan(String scanId, String username, String userId, List<String> roles) {
+        return forceCloseScan(scanId, username, userId, roles, null);
+    }
 
-        // Audit: before call
-        auditService.log(AuditEvent.builder()
-                .action("FORCE_CLOSE_SCAN")
-                .username(username)
-                .userId(userId)
-                .roles(roles)
-                .resourceId(scanId)
-                .status("ATTEMPT")
-                .correlationId(correlationId)
-                .build());
-
-        try {
-            ScanResponse response = controllerClient.forceCloseScan(scanId);
-
-            // Audit: after success
-            auditService.log(AuditEvent.builder()
-                    .action("FORCE_CLOSE_SCAN")
-                    .username(username)
-                    .userId(userId)
-                    .roles(roles)
-                    .resourceId(scanId)
-                    .status("SUCCESS")
-                    .correlationId(correlationId)
-                    .build());
-
-            return response;
-
-        } catch (Exception e) {
-            // Audit: after failure
-            auditService.log(AuditEvent.builder()
-                    .action("FORCE_CLOSE_SCAN")
-                    .username(username)
-                    .userId(userId)
-                    .roles(roles)
-                    .resourceId(scanId)
-                    .status("FAILURE")
-                    .correlationId(correlationId)
-                    .build());
-
-            throw e;
+    /**
+     * Force-close run as an asynchronous job; its audit events carry the jobId.
+     */
+    public Mono<ScanResponse> forceCloseScan(String scanId, String username, String userId, List<String> roles,
+                                             String jobId) {
+        return forceClose(scanId, username, userId, roles, jobId, () -> controllerClient.forceCloseScan(scanId));
+    }
+
+    /**
+     * Force-close that returns ControllerApp's response body undecoded (passthrough mode).
+     */
+    public Mono<RawScan> forceCloseScanRaw(String scanId, String username, String userId, List<String> roles) {
+        return forceClose(scanId, username, userId, roles, null, () -> controllerClient.forceCloseScanRaw(scanId));
+    }
+
+    private <T> Mono<T> forceClose(String scanId, String username, String userId, List<String> roles,
+                                   String jobId, Supplier<Mono<T>> call) {
+        return Mono.deferContextual(context -> {
+            AuditEvent.Builder audit = auditBuilder("FORCE_CLOSE_SCAN", scanId, username, userId, roles,
+                    ReactorRequestContext.correlationId(context))
+                    .jobId(jobId);
+
+            // Audit: before call
+            return detached(log(audit.status("ATTEMPT"))
+                    .then(optional(RequestDeadline.enforce(Mono.defer(call))))
+                    .flatMap(response -> {
+                        onScanForceClosed(scanId);
+                        // Audit: after success
+                        return log(audit.status("SUCCESS")).then(Mono.justOrEmpty(response));
+                    })
+                    // Audit: after failure
+                    .onErrorResume(e -> log(audit.status(failureStatus(e))).then(Mono.error(e))));
+        });
+    }
+
+    public Mono<ScanResponse> getScan(String scanId, String username, String userId, List<String> roles) {
+        return Mono.deferContextual(context -> {
+            AuditEvent.Builder audit = auditBuilder("GET_SCAN", scanId, username, userId, roles,
+                    ReactorRequestContext.correlationId(context));
+
+            return log(audit.status("ATTEMPT"))
+                    .then(optional(RequestDeadline.enforce(Mono.defer(() -> scanCache != null
+                            ? scanCache.get(scanId, controllerClient::getScanVersion)
+                            : controllerClient.getScan(scanId).map(response -> new ScanCache.Lookup(response, false))))))
+                    .flatMap(lookup -> log(audit.status("SUCCESS")
+                            .cached(lookup.isPresent() && lookup.get().cached() ? Boolean.TRUE : null))
+                            .then(Mono.justOrEmpty(lookup.map(ScanCache.Lookup::response))))
+                    .onErrorResume(e -> log(audit.status(failureStatus(e))).then(Mono.error(e)));
+        });
+    }
+
+    /**
+     * getScan that returns ControllerApp's response undecoded (passthrough mode) and forwards
+     * ifNoneMatch to it. Does not use ScanCache, whose entries are decoded scans.
+     */
+    public Mono<RawScan> getScanRaw(String scanId, String ifNoneMatch, String username, String userId,
+                                    List<String> roles) {
+        return Mono.deferContextual(context -> {
+            AuditEvent.Builder audit = auditBuilder("GET_SCAN", scanId, username, userId, roles,
+                    ReactorRequestContext.correlationId(context));
+
+            return log(audit.status("ATTEMPT"))
+                    .then(RequestDeadline.enforce(Mono.defer(() -> controllerClient.getScanRaw(scanId, ifNoneMatch))))
+                    .flatMap(raw -> log(audit.status("SUCCESS")).thenReturn(raw))
+                    .onErrorResume(e -> log(audit.status(failureStatus(e))).then(Mono.error(e)));
+        });
+    }
+
+    public boolean isScanCacheEnabled() {
+        return scanCache != null;
+    }
+
+    /**
+     * Status changes of the scan, starting with its current state, until it reaches a
+     * terminal status or the caller goes away.
+     */
+    public Flux<ScanResponse> watchScan(String scanId, String username, String userId, List<String> roles) {
+        return Flux.deferContextual(context -> {
+            AuditEvent.Builder audit = auditBuilder("WATCH_SCAN", scanId, username, userId, roles,
+                    ReactorRequestContext.correlationId(context));
+            return log(audit.status("SUBSCRIBED")).thenMany(scanWatcher.watch(scanId));
+        });
+    }
+
+    /**
+     * Force-closes many scans concurrently. Results are emitted as each scan completes;
+     * a failed scan yields a FAILURE result rather than failing the whole stream.
+     */
+    public Flux<BulkForceCloseResult> forceCloseScans(List<String> scanIds, String username,
+                                                      String userId, List<String> roles) {
+        LinkedHashSet<String> distinctScanIds = new LinkedHashSet<>(scanIds);
+        if (distinctScanIds.size() > bulkMaxScanIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + bulkMaxScanIds + " scanIds can be force-closed per request");
+        }
+
+        return Flux.deferContextual(context -> {
+            String correlationId = ReactorRequestContext.correlationId(context);
+            return Flux.fromIterable(distinctScanIds)
+                    .flatMap(scanId -> forceCloseOne(
+                            auditBuilder("FORCE_CLOSE_SCAN", scanId, username, userId, roles, correlationId),
+                            scanId), bulkParallelism);
+        });
+    }
+
+    /**
+     * Streams the scans matching the filter from ControllerApp; null arguments do not filter.
+     */
+    public Flux<ScanResponse> listScans(String status, Instant from, Instant to, String username,
+                                        String userId, List<String> roles) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
         }
+
+        return Flux.deferContextual(context -> {
+            AuditEvent.Builder audit = auditBuilder("LIST_SCANS", listingResource(status, from, to), username,
+                    userId, roles, ReactorRequestContext.correlationId(context));
+
+            return log(audit.status("ATTEMPT"))
+                    .thenMany(RequestDeadline.enforceStream(Flux.defer(() -> controllerClient.listScans(status, from, to))
+                            .contextWrite(RequestDeadline::without), listScansIdle))
+                    .concatWith(Mono.defer(() -> log(audit.status("SUCCESS"))).then(Mono.empty()))
+                    .onErrorResume(e -> log(audit.status(failureStatus(e))).then(Mono.error(e)))
+                    .doOnCancel(() -> log(audit.status("CANCELLED")).subscribe());
+        });
+    }
+
+    private Mono<BulkForceCloseResult> forceCloseOne(AuditEvent.Builder audit, String scanId) {
+        return detached(log(audit.status("ATTEMPT"))
+                .then(optional(RequestDeadline.enforce(Mono.defer(() -> controllerClient.forceCloseScan(scanId)))))
+                .flatMap(response -> {
+                    onScanForceClosed(scanId);
+                    return log(audit.status("SUCCESS"))
+                            .thenReturn(BulkForceCloseResult.success(scanId, response.orElse(null)));
+                })
+                .onErrorResume(e -> log(audit.status(failureStatus(e)))
+                        .thenReturn(BulkForceCloseResult.failure(scanId, httpStatusOf(e), e.getMessage()))));
+    }
+
+    /**
+     * A 2xx from ControllerApp without a body completes the call empty; as an empty Optional
+     * it still reaches the SUCCESS step (audit, cache invalidation, watcher wake-up).
+     */
+    private static <T> Mono<Optional<T>> optional(Mono<T> call) {
+        return call.map(Optional::of).defaultIfEmpty(Optional.empty());
     }
 
-    public ScanResponse getScan(String scanId, String username, String userId, List<String> roles) {
-        String correlationId = MDC.get(AuditFilter.CORRELATION_ID_KEY);
+    /**
+     * Subscribes work independently of the caller (with the caller's Context) and relays its
+     * result. A caller that cancels stops waiting; the work itself runs to completion.
+     */
+    private static <T> Mono<T> detached(Mono<T> work) {
+        return Mono.deferContextual(context -> {
+            Sinks.One<T> result = Sinks.one();
+            work.contextWrite(context).subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+            return result.asMono();
+        });
+    }
+
+    /**
+     * Writes the builder's current state as an audit event. Called as each step is reached,
+     * so the timestamp is when the step happened; the write runs on boundedElastic so sink
+     * I/O never lands on a Netty event-loop thread.
+     */
+    private Mono<Void> log(AuditEvent.Builder audit) {
+        AuditEvent event = audit.build();
+        return Mono.<Void>fromRunnable(() -> ReactorRequestContext.withMdc(event.getCorrelationId(),
+                        () -> auditService.log(event)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
 
-        auditService.log(AuditEvent.builder()
-                .action("GET_SCAN")
+    private void onScanForceClosed(String scanId) {
+        if (scanCache != null) {
+            scanCache.invalidate(scanId);
+        }
+        scanWatcher.wake(scanId);
+    }
+
+    private static String listingResource(String status, Instant from, Instant to) {
+        return "scans?status=" + (status != null ? status : "") + "&from=" + (from != null ? from : "")
+                + "&to=" + (to != null ? to : "");
+    }
+
+    private static String failureStatus(Throwable error) {
+        return error instanceof DeadlineExceededException ? "DEADLINE_EXCEEDED" : "FAILURE";
+    }
+
+    private static int httpStatusOf(Throwable error) {
+        if (error instanceof ResponseStatusException statusException) {
+            return statusException.getStatusCode().value();
+        }
+        // Transport failures (connect, timeout) surface as Bad Gateway.
+        return HttpStatus.BAD_GATEWAY.value();
+    }
+
+    /**
+     * One builder per operation: the ATTEMPT and SUCCESS/FAILURE events differ only in
+     * status and timestamp, and build() snapshots the fields, so the builder is reused.
+     */
+    private AuditEvent.Builder auditBuilder(String action, String scanId, String username,
+                                            String userId, List<String> roles, String correlationId) {
+        return AuditEvent.builder()
+                .action(action)
                 .username(username)
                 .userId(userId)
                 .roles(roles)
                 .resourceId(scanId)
-                .status("ATTEMPT")
-                .correlationId(correlationId)
-                .build());
-
-        try {
-            ScanResponse response = controllerClient.getScan(scanId);
-
-            auditService.log(AuditEvent.builder()
-                    .action("GET_SCAN")
-                    .username(username)
-                    .userId(userId)
-                    .roles(roles)
-                    .resourceId(scanId)
-                    .status("SUCCESS")
-                    .correlationId(correlationId)
-                    .build());
-
-            return response;
-
-        } catch (Exception e) {
-            auditService.log(AuditEvent.builder()
-                    .action("GET_SCAN")
-                    .username(username)
-                    .userId(userId)
-                    .roles(roles)
-                    .resourceId(scanId)
-                    .status("FAILURE")
-                    .correlationId(correlationId)
-                    .build());
-
-            throw e;
-        }
+                .correlationId(correlationId);
     }
 }
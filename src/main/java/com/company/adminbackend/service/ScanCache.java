@@ -0,0 +1,198 @@
+package com.company.adminbackend.service;
+
+import com.company.adminbackend.client.ControllerClient.ScanVersion;
+import com.company.adminbackend.deadline.RequestDeadline;
+import com.company.adminbackend.model.ScanResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded read-through cache of ScanResponse keyed by scanId, used by AdminService.getScan.
+ *
+ * Design decisions:
+ * - Single-flight: the first miss for a scanId installs a pending entry and starts the
+ *   upstream call; concurrent lookups for the same id subscribe to that entry instead of
+ *   calling ControllerApp themselves. A failed load is not cached and is signalled to
+ *   every waiter.
+ * - The load is subscribed independently of the caller that triggered it (with that
+ *   caller's Context minus its Deadline), so a cancelled or timed-out request cannot
+ *   strand the other waiters. Each waiter still gets its own deadline through
+ *   RequestDeadline.enforce in AdminService.getScan; the load itself is bounded by the
+ *   ControllerApp response timeout and, if every waiter gave up, still fills the entry.
+ * - Entries expire admin.scan-cache.ttl after they were loaded. The map is kept in access
+ *   order, so once admin.scan-cache.max-size is exceeded the least recently used entry
+ *   is evicted. Expiry and eviction are counted separately.
+ * - The lock only guards map bookkeeping; the upstream call runs outside it.
+ * - invalidate() drops the entry (including an in-flight load, whose result is then not
+ *   retained), so a write such as force-close is never followed by a stale cached read on
+ *   the same instance.
+ * - An expired entry is handed to the loader as the previous version, so ControllerApp is
+ *   asked whether it changed (If-None-Match) instead of being asked for the body again.
+ *   An invalidated or evicted entry is gone and the next load is a full fetch.
+ * - Opt-in (admin.scan-cache.enabled), like the other optional components: reads may be
+ *   up to ttl old, invalidation is local to this instance (a force-close handled by
+ *   another instance stays invisible here until the entry expires), and a cache turns
+ *   off passthrough for scan reads.
+ */
+@Component
+@ConditionalOnProperty(name = "admin.scan-cache.enabled", havingValue = "true")
+public class ScanCache {
+
+    /**
+     * Lookup result; cached is false only for the caller that performed the upstream call.
+     */
+    public record Lookup(ScanResponse response, boolean cached) {
+    }
+
+    private static final class Entry {
+        final Sinks.One<ScanVersion> value = Sinks.one();
+        volatile ScanVersion version;
+        volatile long expiresAt = Long.MAX_VALUE;
+    }
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public ScanCache(@Value("${admin.scan-cache.ttl:5s}") Duration ttl,
+                     @Value("${admin.scan-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ScanCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached response for scanId, loading it through the loader on a miss. The
+     * loader receives the expired version of the scan, or null if there is none.
+     */
+    public Mono<Lookup> get(String scanId, BiFunction<String, ScanVersion, Mono<ScanVersion>> loader) {
+        return Mono.deferContextual(context -> {
+            Entry entry;
+            ScanVersion previous = null;
+            boolean owner = false;
+            lock.lock();
+            try {
+                entry = entries.get(scanId);
+                if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+                    previous = entry.version;
+                    entries.remove(scanId);
+                    expirations.increment();
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry();
+                    entries.put(scanId, entry);
+                    owner = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (!owner) {
+                hits.increment();
+                return entry.value.asMono().map(version -> new Lookup(version.scan(), true));
+            }
+
+            misses.increment();
+            Entry loading = entry;
+            ScanVersion expired = previous;
+            loader.apply(scanId, expired).contextWrite(RequestDeadline.without(context)).subscribe(
+                    version -> {
+                        if (expired != null && version == expired) {
+                            notModified.increment();
+                        }
+                        loading.version = version;
+                        loading.expiresAt = System.nanoTime() + ttlNanos;
+                        loading.value.tryEmitValue(version);
+                    },
+                    error -> {
+                        remove(scanId, loading);
+                        loading.value.tryEmitError(error);
+                    },
+                    () -> {
+                        // No-op after a value; an empty load is not cached.
+                        if (loading.value.tryEmitEmpty().isSuccess()) {
+                            remove(scanId, loading);
+                        }
+                    });
+            return loading.value.asMono().map(version -> new Lookup(version.scan(), false));
+        });
+    }
+
+    public void invalidate(String scanId) {
+        lock.lock();
+        try {
+            entries.remove(scanId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String scanId, Entry entry) {
+        lock.lock();
+        try {
+            entries.remove(scanId, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSize() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Entries dropped because max-size was exceeded (least recently used first). */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Entries dropped because their TTL passed; they are then revalidated or reloaded. */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /** Expired entries ControllerApp confirmed unchanged (304). */
+    public long getNotModified() {
+        return notModified.sum();
+    }
+}
@@ -0,0 +1,161 @@
+package com.company.adminbackend.service;
+
+import com.company.adminbackend.client.ControllerClient;
+import com.company.adminbackend.model.ScanResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Polls ControllerApp for the scans being watched, with one poller per scanId shared by
+ * all of its watchers. Used by AdminService.watchScan.
+ *
+ * Design decisions:
+ * - The poller is replay(1).refCount(): the first watcher starts it, later watchers join
+ *   it and immediately get the latest state, and it is cancelled when the last watcher
+ *   leaves. It also completes once the scan reaches one of
+ *   admin.scan-watch.terminal-statuses.
+ * - Only status changes are emitted; the first poll is always emitted.
+ * - Adaptive interval: it starts at admin.scan-watch.min-interval, doubles after every
+ *   poll that sees no change up to max-interval, and drops back to min-interval when the
+ *   status changes. wake() (called after a force-close) polls at once, so the change
+ *   reaches watchers without waiting out a long interval.
+ * - 5xx, timeouts and rejections by the limiter or breaker count as "no change" and back
+ *   off; a 4xx (e.g. unknown scan) ends the watch with that error.
+ * - The poller serves many requests, so it runs with an empty Context: no caller's
+ *   correlationId, deadline or security context is attached to its ControllerApp calls.
+ *   It polls ControllerApp directly rather than through ScanCache, whose TTL is longer
+ *   than the shortest interval.
+ */
+@Component
+public class ScanWatcher {
+
+    private record Poll(ScanResponse response, boolean changed, Duration nextDelay) {
+    }
+
+    private static final class Poller {
+
+        final Sinks.Many<Boolean> wakeups = Sinks.many().multicast().directBestEffort();
+        Flux<ScanResponse> updates;
+    }
+
+    private final ControllerClient controllerClient;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Set<String> terminalStatuses;
+
+    private final ConcurrentHashMap<String, Poller> pollers = new ConcurrentHashMap<>();
+    private final AtomicInteger watchers = new AtomicInteger();
+    private final LongAdder polls = new LongAdder();
+
+    public ScanWatcher(ControllerClient controllerClient,
+                       @Value("${admin.scan-watch.min-interval:1s}") Duration minInterval,
+                       @Value("${admin.scan-watch.max-interval:10s}") Duration maxInterval,
+                       @Value("${admin.scan-watch.terminal-statuses:CLOSED,COMPLETED,FAILED,CANCELLED}")
+                       List<String> terminalStatuses) {
+        this.controllerClient = controllerClient;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.terminalStatuses = Set.copyOf(terminalStatuses);
+    }
+
+    /**
+     * Status changes of the scan, starting with its current state; completes when the scan
+     * reaches a terminal status.
+     */
+    public Flux<ScanResponse> watch(String scanId) {
+        return Flux.defer(() -> poller(scanId).updates)
+                .doOnSubscribe(subscription -> watchers.incrementAndGet())
+                .doFinally(signal -> watchers.decrementAndGet());
+    }
+
+    /**
+     * Makes the scan's poller, if there is one, poll now instead of at its next interval.
+     */
+    public void wake(String scanId) {
+        Poller poller = pollers.get(scanId);
+        if (poller != null) {
+            poller.wakeups.tryEmitNext(Boolean.TRUE);
+        }
+    }
+
+    private Poller poller(String scanId) {
+        Poller existing = pollers.get(scanId);
+        if (existing != null) {
+            return existing;
+        }
+        Poller created = new Poller();
+        created.updates = polls(scanId, created)
+                .doFinally(signal -> pollers.remove(scanId, created))
+                .replay(1)
+                .refCount();
+        existing = pollers.putIfAbsent(scanId, created);
+        return existing != null ? existing : created;
+    }
+
+    private Flux<ScanResponse> polls(String scanId, Poller poller) {
+        return poll(scanId, null, Duration.ZERO)
+                .expand(previous -> isTerminal(previous.response())
+                        ? Mono.empty()
+                        : Mono.delay(previous.nextDelay())
+                                .thenReturn(previous.nextDelay())
+                                .or(poller.wakeups.asFlux().next().thenReturn(Duration.ZERO))
+                                .flatMap(delay -> poll(scanId, previous.response(), delay)))
+                .filter(Poll::changed)
+                .map(Poll::response)
+                .contextWrite(context -> Context.empty());
+    }
+
+    private Mono<Poll> poll(String scanId, ScanResponse last, Duration delay) {
+        return Mono.defer(() -> {
+                    polls.increment();
+                    return controllerClient.getScan(scanId);
+                })
+                .map(response -> {
+                    boolean changed = last == null || !Objects.equals(last.getStatus(), response.getStatus());
+                    return new Poll(response, changed, changed ? minInterval : backoff(delay));
+                })
+                .onErrorResume(ScanWatcher::isTransient, e -> Mono.just(new Poll(last, false, backoff(delay))));
+    }
+
+    private Duration backoff(Duration delay) {
+        Duration doubled = delay.multipliedBy(2);
+        if (doubled.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        return doubled.compareTo(maxInterval) > 0 ? maxInterval : doubled;
+    }
+
+    private boolean isTerminal(ScanResponse response) {
+        return response != null && terminalStatuses.contains(response.getStatus());
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return !(error instanceof ResponseStatusException statusException
+                && statusException.getStatusCode().is4xxClientError());
+    }
+
+    public int getPollers() {
+        return pollers.size();
+    }
+
+    public int getWatchers() {
+        return watchers.get();
+    }
+
+    public long getPolls() {
+        return polls.sum();
+    }
+}
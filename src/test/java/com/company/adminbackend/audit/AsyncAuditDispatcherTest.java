@@ -0,0 +1,61 @@
+package com.company.adminbackend.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * The audit-writer thread is the ring's only consumer, so nothing a sink throws may end it.
+ */
+class AsyncAuditDispatcherTest {
+
+    private AsyncAuditDispatcher dispatcher;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void writerSurvivesASinkWhoseAfterWriteThrows() {
+        List<AuditEvent> logged = new CopyOnWriteArrayList<>();
+        AuditSink failing = new AuditSink() {
+            @Override
+            public void write(List<AuditEvent> events) {
+            }
+
+            @Override
+            public void afterWrite(List<AuditEvent> events, boolean shipped) {
+                throw new IllegalStateException("acknowledge failed");
+            }
+        };
+        dispatcher = new AsyncAuditDispatcher(List.of(failing, logged::addAll), 16, 1,
+                AuditOverflowPolicy.BLOCK, Duration.ofSeconds(2), Duration.ofMillis(1), Duration.ofSeconds(5));
+
+        for (int i = 0; i < 40; i++) {
+            dispatcher.publish(event("scan-" + i));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> logged.size() == 40);
+        assertThat(dispatcher.getWrittenEvents()).isEqualTo(40);
+        assertThat(dispatcher.getRejectedEvents()).isZero();
+    }
+
+    private static AuditEvent event(String scanId) {
+        return AuditEvent.builder()
+                .timestamp(Instant.now())
+                .action("FORCE_CLOSE_SCAN")
+                .resourceId(scanId)
+                .status("ATTEMPT")
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.company.adminbackend.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AuditEventSerializer must stay byte-identical to the ObjectMapper form it replaced: toJson to
+ * writeValueAsString (log lines) and toJsonBytes to writeValueAsBytes (WAL and store records).
+ */
+class AuditEventSerializerTest {
+
+    private final AuditEventSerializer serializer = new AuditEventSerializer();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void fullEventMatchesObjectMapper() throws Exception {
+        assertSameJson(AuditEvent.builder()
+                .action("FORCE_CLOSE_SCAN")
+                .username("jane.doe@example.com")
+                .userId("6f1c2a9e-3d4b-4f7a-9c1e-2b8d5a7f0e13")
+                .roles(List.of("ADMIN", "SUPPORT"))
+                .resourceId("scan-000123")
+                .timestamp(Instant.parse("2024-03-01T12:34:56.789Z"))
+                .status("SUCCESS")
+                .correlationId("01M53P4KT86WTX091VDEVCKFC5")
+                .build());
+    }
+
+    @Test
+    void nullFieldsAreOmittedLikeObjectMapper() throws Exception {
+        assertSameJson(AuditEvent.builder()
+                .action("GET_SCAN")
+                .timestamp(Instant.parse("2024-03-01T00:00:00Z"))
+                .build());
+        assertSameJson(AuditEvent.builder()
+                .action("LIST_SCANS")
+                .roles(List.of())
+                .status("FAILURE")
+                .timestamp(Instant.parse("2024-03-01T00:00:00.000001Z"))
+                .build());
+    }
+
+    @Test
+    void cachedAndJobIdMatchObjectMapper() throws Exception {
+        assertSameJson(AuditEvent.builder()
+                .action("GET_SCAN")
+                .resourceId("scan-1")
+                .status("SUCCESS")
+                .cached(true)
+                .timestamp(Instant.parse("2024-03-01T12:00:00.000000123Z"))
+                .build());
+        assertSameJson(AuditEvent.builder()
+                .action("FORCE_CLOSE_SCAN")
+                .resourceId("scan-2")
+                .status("ATTEMPT")
+                .cached(false)
+                .jobId("0b7c6a52-3f0e-4c55-9d0a-5e2c8f1d7a44")
+                .build());
+    }
+
+    @Test
+    void nonAsciiAndEscapedTextMatchObjectMapper() throws Exception {
+        assertSameJson(AuditEvent.builder()
+                .action("FORCE_CLOSE_SCAN")
+                .username("Zoë Øster-Łukasz 山田 🔒")
+                .userId("quote\" backslash\\ tab\t newline\n nul\u0000")
+                .roles(List.of("ÄDMIN", "</script>"))
+                .resourceId("scan-ü")
+                .status("UNKNOWN_STATUS")
+                .correlationId("  ")
+                .build());
+    }
+
+    @Test
+    void serializedEventParsesBack() throws Exception {
+        AuditEvent event = AuditEvent.builder()
+                .action("FORCE_CLOSE_SCAN")
+                .username("山田")
+                .roles(List.of("ADMIN"))
+                .cached(true)
+                .jobId("job-1")
+                .timestamp(Instant.parse("2024-03-01T12:34:56.789Z"))
+                .build();
+
+        AuditEvent parsed = serializer.fromJson(serializer.toJsonBytes(event));
+
+        assertThat(parsed).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void pooledWritersStayCorrectUnderConcurrency() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 64; t++) {
+                int thread = t;
+                results.add(threads.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        assertSameJson(AuditEvent.builder()
+                                .action(i % 2 == 0 ? "GET_SCAN" : "FORCE_CLOSE_SCAN")
+                                .username("user-" + thread)
+                                .resourceId("scan-" + i)
+                                .status("SUCCESS")
+                                .timestamp(Instant.ofEpochSecond(1_700_000_000L + i, thread))
+                                .build());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private void assertSameJson(AuditEvent event) throws Exception {
+        assertThat(serializer.toJson(event)).isEqualTo(objectMapper.writeValueAsString(event));
+
+        byte[] expected = objectMapper.writeValueAsBytes(event);
+        assertThat(serializer.toJsonBytes(event)).isEqualTo(expected);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.writeTo(event, out);
+        assertThat(out.toByteArray()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.adminbackend.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The synchronous path: a failing sink must not fail the caller or starve the other sinks.
+ */
+class AuditServiceTest {
+
+    @Test
+    void failingSinkIsCountedAndTheOtherSinksStillWrite() {
+        List<AuditEvent> logged = new CopyOnWriteArrayList<>();
+        List<Boolean> acknowledgements = new CopyOnWriteArrayList<>();
+        AuditSink failing = events -> {
+            throw new UncheckedIOException("Failed to append to audit store", new IOException("No space left"));
+        };
+        AuditSink log = new AuditSink() {
+            @Override
+            public void write(List<AuditEvent> events) {
+                logged.addAll(events);
+            }
+
+            @Override
+            public void afterWrite(List<AuditEvent> events, boolean shipped) {
+                acknowledgements.add(shipped);
+            }
+        };
+        AuditService auditService = new AuditService(List.of(failing, log),
+                new StaticListableBeanFactory().getBeanProvider(AsyncAuditDispatcher.class));
+
+        auditService.log(event());
+
+        assertThat(logged).hasSize(1);
+        assertThat(acknowledgements).containsExactly(false);
+        assertThat(auditService.getFailedEvents()).isEqualTo(1);
+        assertThat(auditService.getWrittenEvents()).isZero();
+    }
+
+    @Test
+    void failingAfterWriteDoesNotFailTheCaller() {
+        List<AuditEvent> logged = new CopyOnWriteArrayList<>();
+        AuditSink failing = new AuditSink() {
+            @Override
+            public void write(List<AuditEvent> events) {
+            }
+
+            @Override
+            public void afterWrite(List<AuditEvent> events, boolean shipped) {
+                throw new IllegalStateException("acknowledge failed");
+            }
+        };
+        AuditService auditService = new AuditService(List.of(failing, logged::addAll),
+                new StaticListableBeanFactory().getBeanProvider(AsyncAuditDispatcher.class));
+
+        auditService.log(event());
+
+        assertThat(logged).hasSize(1);
+        assertThat(auditService.getWrittenEvents()).isEqualTo(1);
+    }
+
+    private static AuditEvent event() {
+        return AuditEvent.builder()
+                .timestamp(Instant.now())
+                .action("FORCE_CLOSE_SCAN")
+                .resourceId("scan-1")
+                .status("ATTEMPT")
+                .build();
+    }
+}
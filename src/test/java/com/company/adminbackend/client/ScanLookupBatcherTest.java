@@ -0,0 +1,181 @@
+package com.company.adminbackend.client;
+
+import com.company.adminbackend.config.ControllerAppProperties;
+import com.company.adminbackend.model.ScanResponse;
+import com.company.adminbackend.security.ServiceTokenProvider;
+import com.company.adminbackend.support.StubServer;
+import com.company.adminbackend.support.StubServer.Response;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives ControllerClient with batching enabled against a stub ControllerApp and checks what
+ * actually goes over the wire: one bulk request per window, the per-scan fallback when the
+ * bulk endpoint is missing, the max-size flush and the handling of an empty bulk answer.
+ */
+class ScanLookupBatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String UNKNOWN = "scan-unknown";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubServer controllerApp;
+
+    @BeforeEach
+    void startControllerApp() throws Exception {
+        controllerApp = StubServer.start()
+                .route("POST", "/api/scans/lookup", this::bulkLookup)
+                .route("GET", "/api/scan/", request -> scan(request.path().substring("/api/scan/".length())));
+    }
+
+    @AfterEach
+    void stopControllerApp() {
+        controllerApp.close();
+    }
+
+    @Test
+    void concurrentLookupsShareOneBulkRequest() {
+        ControllerClient client = client(Duration.ofMillis(200), 50);
+
+        List<ScanResponse> scans = Flux.merge(
+                        client.getScan("scan-1"), client.getScan("scan-2"),
+                        client.getScan("scan-3"), client.getScan("scan-1"))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(scans).extracting(ScanResponse::getScanId)
+                .containsExactlyInAnyOrder("scan-1", "scan-2", "scan-3", "scan-1");
+        assertThat(controllerApp.requests("POST", "/api/scans/lookup")).hasSize(1);
+        assertThat(requestedIds(controllerApp.requests("POST", "/api/scans/lookup").get(0)))
+                .containsExactly("scan-1", "scan-2", "scan-3");
+        assertThat(controllerApp.requests("GET", "/api/scan/")).isEmpty();
+    }
+
+    @Test
+    void scanMissingFromBulkResponseIsNotFound() {
+        ControllerClient client = client(Duration.ofMillis(200), 50);
+
+        Mono<ScanResponse> known = client.getScan("scan-1");
+        Mono<ScanResponse> unknown = client.getScan(UNKNOWN);
+
+        assertThat(known.block(TIMEOUT).getScanId()).isEqualTo("scan-1");
+        assertNotFound(unknown);
+        assertThat(controllerApp.requests("POST", "/api/scans/lookup")).hasSize(1);
+    }
+
+    @Test
+    void emptyBulkResponseFailsEveryWaiterInsteadOfHanging() {
+        controllerApp.route("POST", "/api/scans/lookup", request -> Response.status(204));
+        ControllerClient client = client(Duration.ofMillis(50), 50);
+
+        Mono<ScanResponse> first = client.getScan("scan-1");
+        Mono<ScanResponse> second = client.getScan("scan-2");
+
+        assertNotFound(first);
+        assertNotFound(second);
+    }
+
+    @Test
+    void missingBulkEndpointFallsBackToPerScanCalls() {
+        controllerApp.route("POST", "/api/scans/lookup", request -> Response.status(405));
+        ControllerClient client = client(Duration.ofMillis(100), 50);
+
+        List<ScanResponse> scans = Flux.merge(client.getScan("scan-1"), client.getScan("scan-2"))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(scans).extracting(ScanResponse::getScanId).containsExactlyInAnyOrder("scan-1", "scan-2");
+        assertThat(controllerApp.requests("POST", "/api/scans/lookup")).hasSize(1);
+        assertThat(controllerApp.requests("GET", "/api/scan/")).extracting(StubServer.Request::path)
+                .containsExactlyInAnyOrder("/api/scan/scan-1", "/api/scan/scan-2");
+
+        // Within unsupported-backoff the bulk endpoint is not probed again.
+        Flux.merge(client.getScan("scan-3"), client.getScan("scan-4")).blockLast(TIMEOUT);
+        assertThat(controllerApp.requests("POST", "/api/scans/lookup")).hasSize(1);
+        assertThat(controllerApp.requests("GET", "/api/scan/")).hasSize(4);
+    }
+
+    @Test
+    void reachingMaxBatchSizeFlushesWithoutWaitingForTheWindow() {
+        // The window is far longer than TIMEOUT; only the size trigger can complete these.
+        ControllerClient client = client(Duration.ofMinutes(1), 3);
+
+        List<Mono<ScanResponse>> lookups = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            lookups.add(client.getScan("scan-" + i));
+        }
+        List<ScanResponse> scans = Flux.merge(lookups).collectList().block(TIMEOUT);
+
+        assertThat(scans).hasSize(6);
+        assertThat(controllerApp.requests("POST", "/api/scans/lookup"))
+                .extracting(this::requestedIds)
+                .containsExactlyInAnyOrder(
+                        List.of("scan-1", "scan-2", "scan-3"),
+                        List.of("scan-4", "scan-5", "scan-6"));
+    }
+
+    private ControllerClient client(Duration window, int maxSize) {
+        ControllerAppProperties properties = new ControllerAppProperties();
+        properties.setBaseUrl(controllerApp.baseUrl());
+        properties.getBatch().setEnabled(true);
+        properties.getBatch().setWindow(window);
+        properties.getBatch().setMaxSize(maxSize);
+        ServiceTokenProvider tokens = mock(ServiceTokenProvider.class);
+        when(tokens.getCachedServiceToken()).thenReturn("test-token");
+        WebClient webClient = WebClient.builder().baseUrl(controllerApp.baseUrl()).build();
+        return new ControllerClient(webClient, tokens, properties, new SimpleMeterRegistry());
+    }
+
+    private Response bulkLookup(StubServer.Request request) {
+        String scans = requestedIds(request).stream()
+                .filter(id -> !UNKNOWN.equals(id))
+                .map(ScanLookupBatcherTest::scanJson)
+                .collect(Collectors.joining(",", "[", "]"));
+        return Response.json(200, scans);
+    }
+
+    private static Response scan(String scanId) {
+        return UNKNOWN.equals(scanId) ? Response.status(404) : Response.json(200, scanJson(scanId));
+    }
+
+    private static String scanJson(String scanId) {
+        return "{\"scanId\":\"" + scanId + "\",\"status\":\"RUNNING\",\"message\":\"ok\"}";
+    }
+
+    private List<String> requestedIds(StubServer.Request request) {
+        try {
+            List<String> ids = new ArrayList<>();
+            for (JsonNode id : objectMapper.readTree(request.body()).get("scanIds")) {
+                ids.add(id.asText());
+            }
+            return ids;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void assertNotFound(Mono<ScanResponse> lookup) {
+        assertThatThrownBy(() -> lookup.block(TIMEOUT))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(error -> assertThat(((ResponseStatusException) error).getStatusCode().value())
+                        .isEqualTo(404));
+    }
+}
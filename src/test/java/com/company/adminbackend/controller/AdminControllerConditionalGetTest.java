@@ -0,0 +1,198 @@
+package com.company.adminbackend.controller;
+
+import com.company.adminbackend.audit.AsyncAuditDispatcher;
+import com.company.adminbackend.audit.AuditService;
+import com.company.adminbackend.audit.AuditSink;
+import com.company.adminbackend.client.ControllerClient;
+import com.company.adminbackend.config.ControllerAppProperties;
+import com.company.adminbackend.job.ForceCloseJobService;
+import com.company.adminbackend.model.ScanResponse;
+import com.company.adminbackend.security.ServiceTokenProvider;
+import com.company.adminbackend.security.UserContext;
+import com.company.adminbackend.service.AdminService;
+import com.company.adminbackend.service.ScanCache;
+import com.company.adminbackend.service.ScanWatcher;
+import com.company.adminbackend.support.StubServer;
+import com.company.adminbackend.support.StubServer.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * GET /admin/scan/{scanId} through Spring MVC (async dispatch included) against a stub
+ * ControllerApp: what a matching If-None-Match saves in response bytes, and what is
+ * forwarded to ControllerApp in passthrough mode and on ScanCache revalidation.
+ */
+class AdminControllerConditionalGetTest {
+
+    private static final String SCAN_PATH = "/api/scan/";
+    private static final String UPSTREAM_ETAG = "\"controller-RUNNING\"";
+    private static final String MESSAGE = "x".repeat(512);
+
+    private final AtomicReference<String> status = new AtomicReference<>("RUNNING");
+    private StubServer controllerApp;
+
+    @BeforeEach
+    void startControllerApp() throws Exception {
+        controllerApp = StubServer.start().route("GET", SCAN_PATH, request -> {
+            String etag = "\"controller-" + status.get() + "\"";
+            if (etag.equals(request.header(HttpHeaders.IF_NONE_MATCH))) {
+                return Response.status(304).withHeader(HttpHeaders.ETAG, etag);
+            }
+            String scanId = request.path().substring(SCAN_PATH.length());
+            return Response.json(200, "{\"scanId\":\"" + scanId + "\",\"status\":\"" + status.get()
+                            + "\",\"message\":\"" + MESSAGE + "\"}")
+                    .withHeader(HttpHeaders.ETAG, etag);
+        });
+    }
+
+    @AfterEach
+    void stopControllerApp() {
+        controllerApp.close();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304WithoutABody() throws Exception {
+        MockMvc mvc = mvc(false, null);
+
+        MockHttpServletResponse full = perform(mvc, null);
+        String etag = full.getHeader(HttpHeaders.ETAG);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(etag).isEqualTo(ScanETags.of(new ScanResponse("scan-1", "RUNNING", MESSAGE)));
+        assertThat(full.getContentAsByteArray().length).isGreaterThan(512);
+
+        MockHttpServletResponse notModified = perform(mvc, etag);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(notModified.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+
+        status.set("CLOSED");
+        MockHttpServletResponse changed = perform(mvc, etag);
+        assertThat(changed.getStatus()).isEqualTo(200);
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(changed.getContentAsString()).contains("\"CLOSED\"");
+    }
+
+    @Test
+    void passthroughForwardsIfNoneMatchAndRelaysControllerApps304() throws Exception {
+        MockMvc mvc = mvc(true, null);
+
+        MockHttpServletResponse full = perform(mvc, null);
+        assertThat(full.getStatus()).isEqualTo(200);
+        assertThat(full.getHeader(HttpHeaders.ETAG)).isEqualTo(UPSTREAM_ETAG);
+        assertThat(controllerApp.requests("GET", SCAN_PATH).get(0).header(HttpHeaders.IF_NONE_MATCH)).isNull();
+
+        MockHttpServletResponse notModified = perform(mvc, UPSTREAM_ETAG);
+        assertThat(controllerApp.requests("GET", SCAN_PATH)).hasSize(2);
+        assertThat(controllerApp.requests("GET", SCAN_PATH).get(1).header(HttpHeaders.IF_NONE_MATCH))
+                .isEqualTo(UPSTREAM_ETAG);
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(UPSTREAM_ETAG);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+        assertThat(full.getContentAsByteArray().length).isGreaterThan(512);
+    }
+
+    @Test
+    void expiredCacheEntryIsRevalidatedWithControllerAppsETag() throws Exception {
+        ScanCache scanCache = new ScanCache(Duration.ofMillis(20), 100);
+        MockMvc mvc = mvc(false, scanCache);
+
+        MockHttpServletResponse first = perform(mvc, null);
+        Thread.sleep(40);
+        MockHttpServletResponse second = perform(mvc, null);
+
+        assertThat(controllerApp.requests("GET", SCAN_PATH)).extracting(r -> r.header(HttpHeaders.IF_NONE_MATCH))
+                .containsExactly(null, UPSTREAM_ETAG);
+        assertThat(scanCache.getNotModified()).isEqualTo(1);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+    }
+
+    private static MockHttpServletResponse perform(MockMvc mvc, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder scanRead = get("/admin/scan/scan-1");
+        if (ifNoneMatch != null) {
+            scanRead.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult started = mvc.perform(scanRead).andExpect(request().asyncStarted()).andReturn();
+        started.getAsyncResult(5000);
+        return mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+
+    private MockMvc mvc(boolean passthrough, ScanCache scanCache) {
+        AdminService adminService = new AdminService(controllerClient(), auditService(),
+                beanProvider(ScanCache.class, scanCache), mock(ScanWatcher.class), 4, 500,
+                Duration.ofSeconds(30));
+        Duration deadline = Duration.ofSeconds(5);
+        AdminController controller = new AdminController(adminService, mock(ForceCloseJobService.class),
+                passthrough, deadline, deadline, deadline, deadline, Duration.ofSeconds(15), Duration.ofMinutes(30));
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new FixedUser())
+                .build();
+    }
+
+    private ControllerClient controllerClient() {
+        ControllerAppProperties properties = new ControllerAppProperties();
+        properties.setBaseUrl(controllerApp.baseUrl());
+        ServiceTokenProvider tokens = mock(ServiceTokenProvider.class);
+        when(tokens.getCachedServiceToken()).thenReturn("test-token");
+        WebClient webClient = WebClient.builder().baseUrl(controllerApp.baseUrl()).build();
+        return new ControllerClient(webClient, tokens, properties, new SimpleMeterRegistry());
+    }
+
+    private static AuditService auditService() {
+        AuditSink sink = events -> { };
+        return new AuditService(List.of(sink),
+                new StaticListableBeanFactory().getBeanProvider(AsyncAuditDispatcher.class));
+    }
+
+    private static <T> ObjectProvider<T> beanProvider(Class<T> type, T bean) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (bean != null) {
+            beans.addBean(type.getSimpleName(), bean);
+        }
+        return beans.getBeanProvider(type);
+    }
+
+    /** Stands in for UserContextArgumentResolver; authorization is not under test here. */
+    private static final class FixedUser implements HandlerMethodArgumentResolver {
+
+        @Override
+        public boolean supportsParameter(MethodParameter parameter) {
+            return UserContext.class.equals(parameter.getParameterType());
+        }
+
+        @Override
+        public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+            return new UserContext("jane", "u-1", List.of("ADMIN"));
+        }
+    }
+}
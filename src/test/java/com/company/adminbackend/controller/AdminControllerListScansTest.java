@@ -0,0 +1,104 @@
+package com.company.adminbackend.controller;
+
+import com.company.adminbackend.deadline.DeadlineExceededException;
+import com.company.adminbackend.job.ForceCloseJobService;
+import com.company.adminbackend.model.ScanResponse;
+import com.company.adminbackend.security.UserContext;
+import com.company.adminbackend.service.AdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * GET /admin/scans through Spring MVC: a listing that fails after its first record ends with
+ * a distinct error line; one that fails before any record still gets the error status.
+ */
+class AdminControllerListScansTest {
+
+    private final AdminService adminService = mock(AdminService.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        Duration deadline = Duration.ofSeconds(5);
+        AdminController controller = new AdminController(adminService, mock(ForceCloseJobService.class),
+                false, deadline, deadline, deadline, deadline, Duration.ofSeconds(15), Duration.ofMinutes(30));
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new FixedUser())
+                .build();
+    }
+
+    @Test
+    void listingCutAfterItsFirstRecordEndsWithAnErrorLine() throws Exception {
+        listing(Flux.just(scan("scan-1"), scan("scan-2")).concatWith(Flux.error(new DeadlineExceededException())));
+
+        MvcResult result = mvc.perform(get("/admin/scans")).andExpect(request().asyncStarted()).andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        await().atMost(Duration.ofSeconds(5)).until(() -> response.getContentAsString().lines().count() == 3);
+
+        List<String> lines = response.getContentAsString().lines().toList();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(lines.get(0)).contains("\"scanId\":\"scan-1\"");
+        assertThat(lines.get(1)).contains("\"scanId\":\"scan-2\"");
+        assertThat(lines.get(2)).contains("\"error\":\"DEADLINE_EXCEEDED\"")
+                .contains("\"httpStatus\":504")
+                .doesNotContain("scanId");
+    }
+
+    @Test
+    void listingThatFailsBeforeAnyRecordGetsTheErrorStatus() throws Exception {
+        listing(Flux.error(new DeadlineExceededException()));
+
+        MvcResult result = mvc.perform(get("/admin/scans")).andExpect(request().asyncStarted()).andReturn();
+        await().atMost(Duration.ofSeconds(5)).until(() -> result.getAsyncResult(0) != null);
+        MockHttpServletResponse response = mvc.perform(asyncDispatch(result)).andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(response.getContentAsString()).doesNotContain("\"error\":\"DEADLINE_EXCEEDED\"");
+    }
+
+    private void listing(Flux<ScanResponse> scans) {
+        when(adminService.listScans(isNull(), isNull(), isNull(), any(), any(), any())).thenReturn(scans);
+    }
+
+    private static ScanResponse scan(String scanId) {
+        return new ScanResponse(scanId, "RUNNING", "ok");
+    }
+
+    /** Stands in for UserContextArgumentResolver; authorization is not under test here. */
+    private static final class FixedUser implements HandlerMethodArgumentResolver {
+
+        @Override
+        public boolean supportsParameter(MethodParameter parameter) {
+            return UserContext.class.equals(parameter.getParameterType());
+        }
+
+        @Override
+        public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+            return new UserContext("jane", "u-1", List.of("ADMIN"));
+        }
+    }
+}
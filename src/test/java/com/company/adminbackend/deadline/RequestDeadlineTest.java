@@ -0,0 +1,93 @@
+package com.company.adminbackend.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * enforceStream bounds the first element by the deadline and later elements by the idle gap,
+ * never the stream as a whole and never time the subscriber spends not asking for more.
+ */
+class RequestDeadlineTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void streamMayOutliveItsDeadlineWhileElementsKeepComing() {
+        Flux<Long> steady = Flux.interval(Duration.ofMillis(40)).take(10);
+
+        List<Long> elements = withDeadline(RequestDeadline.enforceStream(steady, Duration.ofMillis(200)),
+                Duration.ofMillis(100)).collectList().block(TIMEOUT);
+
+        assertThat(elements).hasSize(10);
+    }
+
+    @Test
+    void idleGapWhileWaitingFailsTheStream() {
+        Flux<Integer> stalling = Flux.just(1, 2).concatWith(Mono.delay(Duration.ofSeconds(2)).thenReturn(3));
+        List<Integer> received = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> withDeadline(RequestDeadline.enforceStream(stalling, Duration.ofMillis(100)),
+                Duration.ofSeconds(1)).doOnNext(received::add).blockLast(TIMEOUT))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(received).containsExactly(1, 2);
+    }
+
+    @Test
+    void firstElementIsBoundedByTheDeadline() {
+        Flux<Integer> late = Mono.delay(Duration.ofSeconds(2)).thenReturn(1).flux();
+
+        assertThatThrownBy(() -> withDeadline(RequestDeadline.enforceStream(late, Duration.ofSeconds(3)),
+                Duration.ofMillis(100)).blockLast(TIMEOUT))
+                .isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    void slowSubscriberDoesNotTripTheIdleBound() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        withDeadline(RequestDeadline.enforceStream(Flux.range(1, 3), Duration.ofMillis(50)), Duration.ofSeconds(1))
+                .subscribe(new BaseSubscriber<>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription s) {
+                        subscription.set(s);
+                        s.request(1);
+                    }
+
+                    @Override
+                    protected void hookOnNext(Integer value) {
+                        received.add(value);
+                    }
+
+                    @Override
+                    protected void hookOnError(Throwable error) {
+                        failure.set(error);
+                    }
+                });
+
+        for (int i = 0; i < 2; i++) {
+            // Far longer than the idle bound, but nothing was requested meanwhile.
+            Thread.sleep(200);
+            subscription.get().request(1);
+        }
+
+        await().atMost(TIMEOUT).until(() -> received.size() == 3);
+        assertThat(failure.get()).isNull();
+    }
+
+    private static <T> Flux<T> withDeadline(Flux<T> work, Duration budget) {
+        return Flux.defer(() -> work.contextWrite(RequestDeadline.starting(budget)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.company.adminbackend.security;
+
+import com.company.adminbackend.support.StubServer;
+import com.company.adminbackend.support.StubServer.Response;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * ManagedJwkSource against a stub issuer (discovery document plus JWKS endpoint).
+ */
+class ManagedJwkSourceTest {
+
+    private static final Duration AWAIT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path directory;
+
+    private StubServer issuer;
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+    private final List<ManagedJwkSource> sources = new ArrayList<>();
+
+    @BeforeEach
+    void startIssuer() throws Exception {
+        issuer = StubServer.start();
+        issuer.route("GET", "/.well-known/openid-configuration", request -> Response.json(200,
+                        "{\"issuer\":\"" + issuer.baseUrl() + "\",\"jwks_uri\":\"" + issuer.baseUrl() + "/keys\"}"))
+                .route("GET", "/keys", request -> Response.json(200, published.get().toString(true)));
+    }
+
+    @AfterEach
+    void stop() {
+        sources.forEach(ManagedJwkSource::shutdown);
+        issuer.close();
+    }
+
+    @Test
+    void startsFromTheSnapshotWhileTheIssuerIsDown() throws Exception {
+        RSAKey key = publish("key-1");
+        Path snapshot = directory.resolve("jwks-snapshot.json");
+        ManagedJwkSource first = source(snapshot, Duration.ofSeconds(30));
+        assertThat(first.get(selector("key-1"), null)).hasSize(1);
+        assertThat(snapshot).exists();
+
+        issuer.close();
+        ManagedJwkSource restarted = source(snapshot, Duration.ofSeconds(30));
+
+        assertThat(restarted.getKeyCount()).isEqualTo(1);
+        assertThat(restarted.get(selector("key-1"), null))
+                .extracting(JWK::getKeyID).containsExactly(key.getKeyID());
+        restarted.start();
+        await().atMost(AWAIT).until(() -> restarted.getRefreshFailures() == 1);
+        assertThat(restarted.get(selector("key-1"), null)).hasSize(1);
+        assertThat(restarted.getRefreshCount()).isZero();
+    }
+
+    @Test
+    void refreshRewritesTheSnapshot() throws Exception {
+        publish("key-1");
+        Path snapshot = directory.resolve("jwks-snapshot.json");
+        ManagedJwkSource source = source(snapshot, Duration.ofSeconds(30));
+        source.start();
+        await().atMost(AWAIT).until(() -> source.getRefreshCount() == 1);
+        assertThat(Files.readString(snapshot)).contains("\"key-1\"").doesNotContain("\"key-2\"");
+
+        publish("key-2");
+        source.get(selector("key-2"), null);
+
+        await().atMost(AWAIT).until(() -> Files.readString(snapshot).contains("\"key-2\""));
+        assertThat(Files.readString(snapshot)).doesNotContain("\"key-1\"").doesNotContain("\"d\"");
+        assertThat(directory).isDirectoryNotContaining("glob:**/*.tmp");
+    }
+
+    @Test
+    void unknownKidRefetchIsRateLimitedAndTheFirstRotatedTokenIsRejected() throws Exception {
+        publish("key-1");
+        ManagedJwkSource source = source(directory.resolve("jwks-snapshot.json"), Duration.ofHours(1));
+        assertThat(source.get(selector("key-1"), null)).hasSize(1);
+        int jwksFetches = issuer.requests("GET", "/keys").size();
+
+        publish("key-2");
+        // Only schedules the refetch: the first token signed with key-2 is rejected.
+        assertThat(source.get(selector("key-2"), null)).isEmpty();
+        await().atMost(AWAIT).until(() -> !source.get(selector("key-2"), null).isEmpty());
+        assertThat(source.getUnknownKidRefetches()).isEqualTo(1);
+        assertThat(issuer.requests("GET", "/keys")).hasSize(jwksFetches + 1);
+
+        // A flood of tokens with unknown kids inside min-refetch-interval causes no more fetches.
+        publish("key-3");
+        for (int i = 0; i < 50; i++) {
+            assertThat(source.get(selector("key-3"), null)).isEmpty();
+            assertThat(source.get(selector("forged-" + i), null)).isEmpty();
+        }
+        Thread.sleep(200);
+        assertThat(source.getUnknownKidRefetches()).isEqualTo(1);
+        assertThat(issuer.requests("GET", "/keys")).hasSize(jwksFetches + 1);
+    }
+
+    private ManagedJwkSource source(Path snapshot, Duration minRefetchInterval) {
+        ManagedJwkSource source = new ManagedJwkSource(issuer.baseUrl(), snapshot, Duration.ofHours(1),
+                minRefetchInterval, Duration.ofSeconds(2), List.of("RS256"));
+        sources.add(source);
+        return source;
+    }
+
+    private RSAKey publish(String keyId) throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID(keyId).generate();
+        published.set(new JWKSet(key));
+        return key;
+    }
+
+    private static JWKSelector selector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
@@ -0,0 +1,132 @@
+package com.company.adminbackend.service;
+
+import com.company.adminbackend.audit.AsyncAuditDispatcher;
+import com.company.adminbackend.audit.AuditEvent;
+import com.company.adminbackend.audit.AuditService;
+import com.company.adminbackend.audit.AuditSink;
+import com.company.adminbackend.client.ControllerClient;
+import com.company.adminbackend.model.BulkForceCloseResult;
+import com.company.adminbackend.model.ScanResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A force-close whose caller goes away mid-call, or whose 2xx carries no body, must still
+ * complete and audit what ControllerApp actually did, not leave a lone ATTEMPT.
+ */
+class AdminServiceForceCloseTest {
+
+    private static final List<String> ROLES = List.of("ADMIN");
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final List<AuditEvent> events = new CopyOnWriteArrayList<>();
+    private final ControllerClient controllerClient = mock(ControllerClient.class);
+    private final ScanWatcher scanWatcher = mock(ScanWatcher.class);
+    private AdminService adminService;
+
+    @BeforeEach
+    void setUp() {
+        AuditSink sink = events::addAll;
+        AuditService auditService = new AuditService(List.of(sink),
+                new StaticListableBeanFactory().getBeanProvider(AsyncAuditDispatcher.class));
+        adminService = new AdminService(controllerClient, auditService,
+                new StaticListableBeanFactory().getBeanProvider(ScanCache.class), scanWatcher, 4, 500,
+                Duration.ofSeconds(30));
+    }
+
+    @Test
+    void cancelledCallerStillGetsTheUpstreamOutcomeAudited() {
+        when(controllerClient.forceCloseScan("scan-1")).thenReturn(
+                Mono.delay(Duration.ofMillis(200)).thenReturn(new ScanResponse("scan-1", "CLOSED", "closed")));
+
+        Disposable caller = adminService.forceCloseScan("scan-1", "jane", "u-1", ROLES).subscribe();
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().contains("ATTEMPT"));
+        caller.dispose();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().size() == 2);
+        assertThat(statuses()).containsExactly("ATTEMPT", "SUCCESS");
+        verify(scanWatcher).wake("scan-1");
+    }
+
+    @Test
+    void cancelledCallerStillGetsAnUpstreamFailureAudited() {
+        when(controllerClient.forceCloseScan("scan-1")).thenReturn(Mono.delay(Duration.ofMillis(200))
+                .then(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "already closed"))));
+
+        Disposable caller = adminService.forceCloseScan("scan-1", "jane", "u-1", ROLES).subscribe();
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().contains("ATTEMPT"));
+        caller.dispose();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().size() == 2);
+        assertThat(statuses()).containsExactly("ATTEMPT", "FAILURE");
+    }
+
+    @Test
+    void cancelledBulkRequestAuditsEveryStartedScan() {
+        for (String scanId : List.of("scan-1", "scan-2")) {
+            when(controllerClient.forceCloseScan(scanId)).thenReturn(
+                    Mono.delay(Duration.ofMillis(200)).thenReturn(new ScanResponse(scanId, "CLOSED", "closed")));
+        }
+
+        Disposable caller = adminService.forceCloseScans(List.of("scan-1", "scan-2"), "jane", "u-1", ROLES)
+                .map(BulkForceCloseResult::getScanId)
+                .subscribe();
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().size() == 2);
+        caller.dispose();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> statuses().size() == 4);
+        assertThat(events).filteredOn(event -> "SUCCESS".equals(event.getStatus()))
+                .extracting(AuditEvent::getResourceId)
+                .containsExactlyInAnyOrder("scan-1", "scan-2");
+    }
+
+    @Test
+    void successWithoutABodyIsStillAuditedAndInvalidatesTheScan() {
+        when(controllerClient.forceCloseScan("scan-1")).thenReturn(Mono.empty());
+
+        ScanResponse response = adminService.forceCloseScan("scan-1", "jane", "u-1", ROLES).block(TIMEOUT);
+
+        assertThat(response).isNull();
+        assertThat(statuses()).containsExactly("ATTEMPT", "SUCCESS");
+        verify(scanWatcher).wake("scan-1");
+    }
+
+    @Test
+    void bulkSuccessWithoutABodyStillYieldsAResultLine() {
+        when(controllerClient.forceCloseScan("scan-1")).thenReturn(Mono.empty());
+        when(controllerClient.forceCloseScan("scan-2")).thenReturn(
+                Mono.just(new ScanResponse("scan-2", "CLOSED", "closed")));
+
+        List<BulkForceCloseResult> results = adminService
+                .forceCloseScans(List.of("scan-1", "scan-2"), "jane", "u-1", ROLES)
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(results).extracting(BulkForceCloseResult::getScanId, BulkForceCloseResult::getOutcome)
+                .containsExactlyInAnyOrder(
+                        tuple("scan-1", BulkForceCloseResult.SUCCESS),
+                        tuple("scan-2", BulkForceCloseResult.SUCCESS));
+        assertThat(statuses()).filteredOn("SUCCESS"::equals).hasSize(2);
+        verify(scanWatcher).wake("scan-1");
+    }
+
+    private List<String> statuses() {
+        return events.stream().map(AuditEvent::getStatus).toList();
+    }
+}
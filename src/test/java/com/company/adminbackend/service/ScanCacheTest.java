@@ -0,0 +1,74 @@
+package com.company.adminbackend.service;
+
+import com.company.adminbackend.client.ControllerClient.ScanVersion;
+import com.company.adminbackend.deadline.DeadlineExceededException;
+import com.company.adminbackend.deadline.RequestDeadline;
+import com.company.adminbackend.model.ScanResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScanCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void sharedLoadIsNotBoundByTheDeadlineOfTheCallerThatStartedIt() {
+        ScanCache cache = new ScanCache(Duration.ofMinutes(1), 100);
+        AtomicReference<Object> loaderDeadline = new AtomicReference<>("unset");
+        AtomicInteger loads = new AtomicInteger();
+        ScanVersion loaded = version("scan-1");
+
+        Mono<ScanVersion> slowLoad = Mono.deferContextual(context -> {
+            loaderDeadline.set(RequestDeadline.from(context));
+            loads.incrementAndGet();
+            // An upstream call honours whatever deadline its Context carries (DeadlineExchangeFilter).
+            return RequestDeadline.enforce(Mono.just(loaded).delayElement(Duration.ofMillis(300)));
+        });
+        Mono<ScanCache.Lookup> impatient = withDeadline(cache.get("scan-1", (id, previous) -> slowLoad),
+                Duration.ofMillis(50));
+        Mono<ScanCache.Lookup> patient = withDeadline(cache.get("scan-1", (id, previous) -> slowLoad),
+                Duration.ofSeconds(2));
+
+        assertThatThrownBy(() -> impatient.block(TIMEOUT)).isInstanceOf(DeadlineExceededException.class);
+        ScanCache.Lookup lookup = patient.block(TIMEOUT);
+
+        assertThat(lookup.response()).isSameAs(loaded.scan());
+        assertThat(lookup.cached()).isTrue();
+        assertThat(loads).hasValue(1);
+        assertThat(loaderDeadline.get()).isNull();
+    }
+
+    @Test
+    void expiryIsCountedSeparatelyFromEviction() throws InterruptedException {
+        ScanCache cache = new ScanCache(Duration.ofMillis(20), 1);
+
+        cache.get("scan-1", (id, previous) -> Mono.just(version(id))).block(TIMEOUT);
+        Thread.sleep(40);
+        cache.get("scan-1", (id, previous) -> Mono.just(previous)).block(TIMEOUT);
+
+        assertThat(cache.getExpirations()).isEqualTo(1);
+        assertThat(cache.getNotModified()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isZero();
+
+        cache.get("scan-2", (id, previous) -> Mono.just(version(id))).block(TIMEOUT);
+
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getExpirations()).isEqualTo(1);
+    }
+
+    /** Like AdminService.getScan: the caller's deadline, counted from subscription. */
+    private static <T> Mono<T> withDeadline(Mono<T> work, Duration budget) {
+        return Mono.defer(() -> RequestDeadline.enforce(work).contextWrite(RequestDeadline.starting(budget)));
+    }
+
+    private static ScanVersion version(String scanId) {
+        return new ScanVersion(new ScanResponse(scanId, "RUNNING", "ok"), "\"" + scanId + "\"");
+    }
+}
@@ -0,0 +1,159 @@
+package com.company.adminbackend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Loopback HTTP stub for tests that talk to a real socket instead of mocking WebClient or
+ * RestTemplate: each route answers with a canned or computed response, and every request is
+ * recorded so tests can assert what was actually sent.
+ *
+ * Design decisions:
+ * - JDK HttpServer on an ephemeral port, so tests run in parallel without port clashes and
+ *   without extra dependencies.
+ * - Routes are matched by method and path prefix, longest prefix first; an unmatched
+ *   request gets 404, which is also what a ControllerApp without the endpoint answers.
+ * - Responses can be swapped while the stub runs (e.g. to take an issuer down mid-test).
+ */
+public final class StubServer implements AutoCloseable {
+
+    /**
+     * A recorded request; header names are lower-case.
+     */
+    public record Request(String method, String path, String query, Map<String, List<String>> headers, byte[] body) {
+
+        public String header(String name) {
+            List<String> values = headers.get(name.toLowerCase());
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A response to send; a null body sends no body at all (204, 304).
+     */
+    public record Response(int status, Map<String, String> headers, byte[] body) {
+
+        public static Response json(int status, String json) {
+            return new Response(status, Map.of("Content-Type", "application/json"),
+                    json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Response status(int status) {
+            return new Response(status, Map.of(), null);
+        }
+
+        public Response withHeader(String name, String value) {
+            Map<String, String> merged = new ConcurrentHashMap<>(headers);
+            merged.put(name, value);
+            return new Response(status, merged, body);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Function<Request, Response>> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static StubServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        ExecutorService executor = Executors.newFixedThreadPool(8, runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        StubServer stub = new StubServer(server, executor);
+        server.createContext("/", stub::handle);
+        server.start();
+        return stub;
+    }
+
+    public StubServer route(String method, String pathPrefix, Function<Request, Response> handler) {
+        routes.put(method + " " + pathPrefix, handler);
+        return this;
+    }
+
+    public String baseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public List<Request> requests() {
+        return List.copyOf(requests);
+    }
+
+    public List<Request> requests(String method, String pathPrefix) {
+        return requests.stream()
+                .filter(request -> request.method().equals(method) && request.path().startsWith(pathPrefix))
+                .toList();
+    }
+
+    public void reset() {
+        requests.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            Map<String, List<String>> headers = new ConcurrentHashMap<>();
+            exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(), List.copyOf(values)));
+            Request request = new Request(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                    exchange.getRequestURI().getRawQuery(), headers, body);
+            requests.add(request);
+
+            Response response = findRoute(request)
+                    .map(handler -> handler.apply(request))
+                    .orElse(Response.status(404));
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            exchange.sendResponseHeaders(response.status(), response.body().length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body());
+            }
+        }
+    }
+
+    private Optional<Function<Request, Response>> findRoute(Request request) {
+        String key = request.method() + " " + request.path();
+        return routes.entrySet().stream()
+                .filter(route -> key.startsWith(route.getKey()))
+                .max((a, b) -> Integer.compare(a.getKey().length(), b.getKey().length()))
+                .map(Map.Entry::getValue);
+    }
+}